@@ -0,0 +1,54 @@
+package com.github.t1.log;
+
+import jakarta.interceptor.InvocationContext;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/** A lightweight stand-in for the container's invocation context, calling the target directly, not reflectively */
+class BenchmarkInvocationContext implements InvocationContext {
+    @FunctionalInterface
+    interface Proceed {
+        Object proceed(Object[] parameters) throws Exception;
+    }
+
+    /** For void methods that don't do anything, the proceed can be <code>null</code> */
+    static BenchmarkInvocationContext invocation(Object target, String methodName, Proceed proceed,
+        Object... parameters) {
+        for (Method method : target.getClass().getMethods())
+            if (method.getName().equals(methodName))
+                return new BenchmarkInvocationContext(target, method, proceed, parameters);
+        throw new IllegalArgumentException("no method " + methodName + " in " + target.getClass());
+    }
+
+    private final Object target;
+    private final Method method;
+    private final Proceed proceed;
+    private Object[] parameters;
+    private final Map<String, Object> contextData = new HashMap<>();
+
+    private BenchmarkInvocationContext(Object target, Method method, Proceed proceed, Object[] parameters) {
+        this.target = target;
+        this.method = method;
+        this.proceed = (proceed == null) ? p -> null : proceed;
+        this.parameters = parameters;
+    }
+
+    @Override public Object getTarget() {return target;}
+
+    @Override public Object getTimer() {return null;}
+
+    @Override public Method getMethod() {return method;}
+
+    @Override public Constructor<?> getConstructor() {return null;}
+
+    @Override public Object[] getParameters() {return parameters;}
+
+    @Override public void setParameters(Object[] parameters) {this.parameters = parameters;}
+
+    @Override public Map<String, Object> getContextData() {return contextData;}
+
+    @Override public Object proceed() throws Exception {return proceed.proceed(parameters);}
+}
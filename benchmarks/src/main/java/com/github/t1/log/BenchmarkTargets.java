@@ -0,0 +1,84 @@
+package com.github.t1.log;
+
+import static com.github.t1.log.JsonLogDetail.ALL;
+
+/** The beans that would be intercepted; the methods don't do anything, so we only measure the logging */
+@SuppressWarnings("unused")
+public class BenchmarkTargets {
+    public static class Address {
+        private final String zip;
+
+        public Address(String zip) {this.zip = zip;}
+
+        public String getZip() {return zip;}
+    }
+
+    public static class Person {
+        private final String name;
+        private final Address address;
+
+        public Person(String name, Address address) {
+            this.name = name;
+            this.address = address;
+        }
+
+        public String getName() {return name;}
+
+        public Address getAddress() {return address;}
+    }
+
+    public static class PersonConverter implements Converter {
+        public String convert(Person person) {return person.getName();}
+    }
+
+    public static class Failure extends RuntimeException {
+        public Failure() {super("failure", null, false, false);}
+    }
+
+    static final Failure FAILURE = new Failure();
+
+    /** Without a <code>@Logged</code> annotation, the interceptor uses a null log point */
+    public static class NotLogged {
+        public void notLogged(String name) {}
+    }
+
+    public static class Logging {
+        @Logged public void greet(String name) {}
+
+        @Logged public String greetWithResult(String name) {return name;}
+
+        @Logged public void failed(String name, Exception exception) {}
+
+        @Logged public void thrown(String name) {throw FAILURE;}
+
+        @Logged(json = ALL) public void json(String name, int count) {}
+
+        @Logged public void logContext(@LogContext("customer") String customer) {}
+
+        @Logged("zip {person.address.zip}") public void expression(Person person) {}
+
+        @Logged public void converted(Person person) {}
+
+        @Logged(lazy = true) public void convertedLazily(Person person) {}
+
+        @Logged(repeat = LogRepeatLimit.ALL) public void repeatAll(String name) {}
+
+        @Logged(repeat = LogRepeatLimit.ONCE_PER_SECOND) public void repeatOncePerSecond(String name) {}
+
+        @Logged(repeat = LogRepeatLimit.ONCE_PER_MINUTE) public void repeatOncePerMinute(String name) {}
+
+        @Logged(repeat = LogRepeatLimit.ONCE_PER_HOUR) public void repeatOncePerHour(String name) {}
+
+        @Logged(repeat = LogRepeatLimit.ONCE_PER_DAY) public void repeatOncePerDay(String name) {}
+
+        @Logged(repeat = LogRepeatLimit.ONCE) public void repeatOnce(String name) {}
+    }
+
+    /** The field log context is added for all methods of the class, so it has a class of its own */
+    public static class FieldLogContext {
+        @LogContext("tenant")
+        private final String tenant = "acme";
+
+        @Logged public void field(String name) {}
+    }
+}
@@ -0,0 +1,75 @@
+package com.github.t1.log;
+
+import com.github.t1.log.BenchmarkTargets.Address;
+import com.github.t1.log.BenchmarkTargets.Person;
+import com.github.t1.log.BenchmarkTargets.PersonConverter;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.lang.reflect.Method;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * The {@link Converters} compared to calling the same converter methods reflectively, as they used to be called,
+ * for a user converter and for the {@link JaxRsLogConverters}. The map converter is an appending converter, so it's
+ * rendered into a reused buffer, like the message buffer, compared to the string an old-style converter returned.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 3, time = 1, timeUnit = SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = SECONDS)
+@Fork(1)
+@State(Scope.Thread)
+public class ConvertersBenchmark {
+    private final Person person = new Person("Jane", new Address("12345"));
+    private final MultivaluedMap<String, String> map = new MultivaluedHashMap<>();
+
+    private final PersonConverter personConverter = new PersonConverter();
+    private final JaxRsLogConverters jaxRsConverters = new JaxRsLogConverters();
+    private final Converters converters = new Converters();
+    private Method personMethod;
+    private Method mapMethod;
+    private final StringBuilder buffer = new StringBuilder(256);
+
+    @Setup(Level.Trial)
+    public void setUp() throws NoSuchMethodException {
+        map.add("one", "1");
+        map.add("two", "2");
+        converters.register(personConverter);
+        converters.register(jaxRsConverters);
+        personMethod = PersonConverter.class.getMethod("convert", Person.class);
+        mapMethod = JaxRsLogConverters.class.getMethod("convert", MultivaluedMap.class, StringBuilder.class);
+    }
+
+    @Benchmark public Object userConverterReflective() throws ReflectiveOperationException {
+        return personMethod.invoke(personConverter, person);
+    }
+
+    @Benchmark public Object userConverter() {return converters.convert(person);}
+
+    @Benchmark public Object jaxRsConverterReflective() throws ReflectiveOperationException {
+        StringBuilder out = new StringBuilder();
+        mapMethod.invoke(jaxRsConverters, map, out);
+        buffer.setLength(0);
+        return buffer.append(out.toString());
+    }
+
+    @Benchmark public Object jaxRsConverter() {
+        buffer.setLength(0);
+        ValueRenderer.append(buffer, converters.convert(map));
+        return buffer;
+    }
+}
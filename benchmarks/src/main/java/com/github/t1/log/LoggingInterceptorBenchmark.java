@@ -0,0 +1,145 @@
+package com.github.t1.log;
+
+import com.github.t1.log.BenchmarkTargets.Address;
+import com.github.t1.log.BenchmarkTargets.FieldLogContext;
+import com.github.t1.log.BenchmarkTargets.Logging;
+import com.github.t1.log.BenchmarkTargets.NotLogged;
+import com.github.t1.log.BenchmarkTargets.Person;
+import com.github.t1.log.BenchmarkTargets.PersonConverter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+
+import static com.github.t1.log.BenchmarkInvocationContext.invocation;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * What does <code>@Logged</code> cost? Every log point variant and feature, with the level enabled and disabled.
+ * Run with the <code>gc</code> profiler (the default in {@link Benchmarks}) to get the bytes per operation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(NANOSECONDS)
+@Warmup(iterations = 3, time = 1, timeUnit = SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = SECONDS)
+@Fork(1)
+@State(Scope.Thread)
+public class LoggingInterceptorBenchmark {
+    @Param({"true", "false"})
+    boolean enabled;
+
+    /** Compare the generated log points with the standard ones */
+    @Param({"false", "true"})
+    boolean specialized;
+
+    LoggingInterceptor interceptor;
+
+    private final Logging logging = new Logging();
+    private final Person person = new Person("Jane", new Address("12345"));
+
+    private BenchmarkInvocationContext notLogged;
+    private BenchmarkInvocationContext standard;
+    private BenchmarkInvocationContext returnValue;
+    private BenchmarkInvocationContext throwableParameter;
+    private BenchmarkInvocationContext thrown;
+    private BenchmarkInvocationContext json;
+    private BenchmarkInvocationContext logContextParameter;
+    private BenchmarkInvocationContext logContextField;
+    private BenchmarkInvocationContext expression;
+    private BenchmarkInvocationContext converted;
+    private BenchmarkInvocationContext convertedLazily;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        NoOpLoggerProvider.enabled = enabled;
+        Converters converters = new Converters();
+        converters.register(new PersonConverter());
+        interceptor = new LoggingInterceptor(List.of(new LogContextVariable("app", "benchmarks")), converters,
+            LogOptions.global().withSpecialized(specialized));
+
+        notLogged = invocation(new NotLogged(), "notLogged", null, "Jane");
+        standard = invocation(logging, "greet", null, "Jane");
+        returnValue = invocation(logging, "greetWithResult", p -> logging.greetWithResult((String) p[0]), "Jane");
+        throwableParameter = invocation(logging, "failed", null, "Jane", BenchmarkTargets.FAILURE);
+        thrown = invocation(logging, "thrown", p -> {
+            logging.thrown((String) p[0]);
+            return null;
+        }, "Jane");
+        json = invocation(logging, "json", null, "Jane", 3);
+        logContextParameter = invocation(logging, "logContext", null, "Jane");
+        logContextField = invocation(new FieldLogContext(), "field", null, "Jane");
+        expression = invocation(logging, "expression", null, person);
+        converted = invocation(logging, "converted", null, person);
+        convertedLazily = invocation(logging, "convertedLazily", null, person);
+    }
+
+    @Benchmark public Object notLogged() throws Exception {return interceptor.aroundInvoke(notLogged);}
+
+    @Benchmark public Object standard() throws Exception {return interceptor.aroundInvoke(standard);}
+
+    @Benchmark public Object returnValue() throws Exception {return interceptor.aroundInvoke(returnValue);}
+
+    @Benchmark public Object throwableParameter() throws Exception {
+        return interceptor.aroundInvoke(throwableParameter);
+    }
+
+    @Benchmark public Object thrown() throws Exception {
+        try {
+            return interceptor.aroundInvoke(thrown);
+        } catch (BenchmarkTargets.Failure e) {
+            return e;
+        }
+    }
+
+    @Benchmark public Object json() throws Exception {return interceptor.aroundInvoke(json);}
+
+    @Benchmark public Object logContextParameter() throws Exception {
+        return interceptor.aroundInvoke(logContextParameter);
+    }
+
+    @Benchmark public Object logContextField() throws Exception {return interceptor.aroundInvoke(logContextField);}
+
+    @Benchmark public Object expression() throws Exception {return interceptor.aroundInvoke(expression);}
+
+    @Benchmark public Object converted() throws Exception {return interceptor.aroundInvoke(converted);}
+
+    /** The no-op logger never formats the message, like a backend filter that drops it */
+    @Benchmark public Object convertedLazily() throws Exception {return interceptor.aroundInvoke(convertedLazily);}
+
+    /** The repeat limits need a log point each, so they have a state of their own */
+    @State(Scope.Thread)
+    public static class RepeatLimit {
+        @Param
+        LogRepeatLimit repeat;
+
+        BenchmarkInvocationContext invocation;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            String methodName = "repeat" + camelCase(repeat.name());
+            invocation = invocation(new Logging(), methodName, null, "Jane");
+        }
+
+        private static String camelCase(String constant) {
+            StringBuilder out = new StringBuilder();
+            for (String word : constant.split("_"))
+                out.append(word.charAt(0)).append(word.substring(1).toLowerCase());
+            return out.toString();
+        }
+    }
+
+    @Benchmark public Object repeatLimit(RepeatLimit state) throws Exception {
+        return interceptor.aroundInvoke(state.invocation);
+    }
+}
@@ -0,0 +1,34 @@
+package com.github.t1.log;
+
+import org.slf4j.Marker;
+import org.slf4j.event.Level;
+import org.slf4j.helpers.LegacyAbstractLogger;
+
+/** Keeps a reference to the last message, so the JIT can't eliminate building it */
+class NoOpLogger extends LegacyAbstractLogger {
+    private String lastMessage;
+    private Throwable lastThrowable;
+
+    NoOpLogger(String name) {
+        this.name = name;
+    }
+
+    @Override public boolean isTraceEnabled() {return NoOpLoggerProvider.enabled;}
+
+    @Override public boolean isDebugEnabled() {return NoOpLoggerProvider.enabled;}
+
+    @Override public boolean isInfoEnabled() {return NoOpLoggerProvider.enabled;}
+
+    @Override public boolean isWarnEnabled() {return NoOpLoggerProvider.enabled;}
+
+    @Override public boolean isErrorEnabled() {return NoOpLoggerProvider.enabled;}
+
+    @Override protected String getFullyQualifiedCallerName() {return null;}
+
+    @Override
+    protected void handleNormalizedLoggingCall(Level level, Marker marker, String messagePattern, Object[] arguments,
+        Throwable throwable) {
+        this.lastMessage = messagePattern;
+        this.lastThrowable = throwable;
+    }
+}
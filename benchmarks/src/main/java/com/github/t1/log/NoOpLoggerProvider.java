@@ -0,0 +1,37 @@
+package com.github.t1.log;
+
+import org.slf4j.ILoggerFactory;
+import org.slf4j.IMarkerFactory;
+import org.slf4j.Logger;
+import org.slf4j.helpers.BasicMDCAdapter;
+import org.slf4j.helpers.BasicMarkerFactory;
+import org.slf4j.spi.MDCAdapter;
+import org.slf4j.spi.SLF4JServiceProvider;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Loggers that don't write anything, so the benchmarks measure only the interceptor. The MDC is the basic one from
+ * slf4j, as that's roughly what the real logging backends do.
+ */
+public class NoOpLoggerProvider implements SLF4JServiceProvider {
+    /** All levels are enabled or none is */
+    static volatile boolean enabled = true;
+
+    private final Map<String, Logger> loggers = new ConcurrentHashMap<>();
+    private final IMarkerFactory markerFactory = new BasicMarkerFactory();
+    private final MDCAdapter mdcAdapter = new BasicMDCAdapter();
+
+    @Override public String getRequestedApiVersion() {return "2.0.99";}
+
+    @Override public void initialize() {}
+
+    @Override public ILoggerFactory getLoggerFactory() {
+        return name -> loggers.computeIfAbsent(name, NoOpLogger::new);
+    }
+
+    @Override public IMarkerFactory getMarkerFactory() {return markerFactory;}
+
+    @Override public MDCAdapter getMDCAdapter() {return mdcAdapter;}
+}
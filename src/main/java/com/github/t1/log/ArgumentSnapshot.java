@@ -0,0 +1,112 @@
+package com.github.t1.log;
+
+import jakarta.interceptor.InvocationContext;
+import lombok.experimental.Delegate;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+
+/**
+ * The values of the {@link ParameterLogArgument}s of one invocation, so every parameter (with its expression) is
+ * evaluated and converted only once, even when it goes into the MDC, the message, and the JSON. The
+ * {@link ParameterLogArgument}s of a {@link LogPoint} get their slots when the log point is built.
+ * <p>
+ * Like the {@link RestorableMdc}, the snapshots are kept as a per-thread stack, so the slot arrays are reused by later
+ * invocations on the same thread, while a nested invocation, e.g. from a converter, gets its own snapshot. The
+ * thread-local is removed when the outermost snapshot is closed, and the idle snapshots are only kept weakly, so
+ * idle (pooled) threads don't pin the class loader of the application.
+ */
+class ArgumentSnapshot implements InvocationContext {
+    static final Object UNSET = new Object();
+    private static final Object[] NO_VALUES = new Object[0];
+    private static final ThreadLocal<ArgumentSnapshot> CURRENT = new ThreadLocal<>();
+    private static final ThreadLocal<WeakReference<ArgumentSnapshot>> IDLE = new ThreadLocal<>();
+    /** The outer of the outermost snapshots of all threads; it's never changed */
+    private static final ArgumentSnapshot ROOT = new ArgumentSnapshot(null);
+
+    static ArgumentSnapshot open(InvocationContext context, int slots) {
+        ArgumentSnapshot current = CURRENT.get();
+        ArgumentSnapshot outer = (current == null) ? ROOT : current;
+        ArgumentSnapshot snapshot = (outer == ROOT) ? idle() : outer.inner;
+        if (snapshot == null) {
+            snapshot = new ArgumentSnapshot(outer);
+            if (outer == ROOT)
+                IDLE.set(new WeakReference<>(snapshot));
+            else
+                outer.inner = snapshot;
+        }
+        snapshot.init(context, slots);
+        CURRENT.set(snapshot);
+        return snapshot;
+    }
+
+    private static ArgumentSnapshot idle() {
+        WeakReference<ArgumentSnapshot> idle = IDLE.get();
+        return (idle == null) ? null : idle.get();
+    }
+
+    private interface Parameters {
+        Object[] getParameters();
+    }
+
+    private final ArgumentSnapshot outer;
+    private ArgumentSnapshot inner;
+
+    @Delegate(types = InvocationContext.class, excludes = Parameters.class)
+    private InvocationContext context;
+    private Object[] parameters;
+    private Object[] values = NO_VALUES;
+    private int size;
+
+    private ArgumentSnapshot(ArgumentSnapshot outer) {
+        this.outer = outer;
+    }
+
+    private void init(InvocationContext context, int slots) {
+        this.context = context;
+        if (values.length < slots) {
+            values = new Object[slots];
+            Arrays.fill(values, UNSET);
+        }
+        this.size = slots;
+    }
+
+    /** The original invocation context, e.g. for values that are evaluated after this snapshot is closed */
+    InvocationContext invocation() {
+        return context;
+    }
+
+    /** The parameters are read only once */
+    @Override public Object[] getParameters() {
+        if (parameters == null)
+            parameters = context.getParameters();
+        return parameters;
+    }
+
+    Object value(int slot, ParameterLogArgument argument) {
+        Object value = values[slot];
+        if (value == UNSET)
+            values[slot] = value = argument.evaluate(this);
+        return value;
+    }
+
+    Object evaluated(int slot) {
+        return values[slot];
+    }
+
+    /** Drop the values, so they can be garbage collected, and close the snapshot */
+    void close() {
+        Arrays.fill(values, 0, size, UNSET);
+        context = null;
+        parameters = null;
+        if (outer == ROOT)
+            CURRENT.remove();
+        else
+            CURRENT.set(outer);
+    }
+
+    /** There is no open snapshot on this thread */
+    static boolean isIdle() {
+        return CURRENT.get() == null;
+    }
+}
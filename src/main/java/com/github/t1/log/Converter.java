@@ -10,5 +10,9 @@ package com.github.t1.log;
  * </ul>
  * All methods named <code>convert</code> taking one argument and returning non-void will be registered as converter
  * methods.
+ * <p>
+ * Methods named <code>convert</code> returning void and taking the value and a {@link StringBuilder} (or
+ * {@link Appendable}) are registered as well; they write the converted value directly into the log message, without an
+ * intermediate string. This is useful for, e.g., maps and collections.
  */
 public interface Converter {}
@@ -5,27 +5,95 @@ import jakarta.enterprise.inject.Instance;
 import jakarta.inject.Inject;
 import jakarta.inject.Singleton;
 import lombok.AllArgsConstructor;
+import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
 
 /** Collects all implementations of {@link Converter}s and delegates {@link #convert(Object)}. */
 @Slf4j
 @Singleton
 public class Converters {
+    /**
+     * The converter method is bound once to a generated {@link Function} (or {@link BiConsumer} for appending
+     * converters), so the JIT can inline it, instead of the varargs and access checks of a reflective call. If that's
+     * not possible, e.g. for classes in other modules, we fall back to a {@link MethodHandle}.
+     */
     @AllArgsConstructor
     private static class ConverterMethod {
-        private final Converter converterInstance;
         private final Method method;
+        private final Function<Object, Object> function;
+        private final BiConsumer<Object, StringBuilder> appender;
 
-        public Object convert(Object value) {
+        static ConverterMethod of(Converter converterInstance, Method method) throws ReflectiveOperationException {
+            return isAppending(method)
+                ? new ConverterMethod(method, null, bindAppender(converterInstance, method))
+                : new ConverterMethod(method, bindFunction(converterInstance, method), null);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Function<Object, Object> bindFunction(Converter instance, Method method)
+            throws ReflectiveOperationException {
+            try {
+                return (Function<Object, Object>) metafactory(instance, method, Function.class, "apply",
+                    MethodType.methodType(Object.class, Object.class),
+                    MethodType.methodType(method.getReturnType(), method.getParameterTypes()[0]).wrap());
+            } catch (Throwable e) {
+                log.debug("can't generate converter function for {}; fall back to method handle", method, e);
+            }
+            MethodHandle handle = MethodHandles.lookup().unreflect(method).bindTo(instance)
+                .asType(MethodType.methodType(Object.class, Object.class));
+            return value -> invoke(handle, value);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static BiConsumer<Object, StringBuilder> bindAppender(Converter instance, Method method)
+            throws ReflectiveOperationException {
             try {
-                return method.invoke(converterInstance, value);
-            } catch (ReflectiveOperationException e) {
-                throw new RuntimeException("can't convert", e);
+                return (BiConsumer<Object, StringBuilder>) metafactory(instance, method, BiConsumer.class, "accept",
+                    MethodType.methodType(void.class, Object.class, Object.class),
+                    MethodType.methodType(void.class, wrap(method.getParameterTypes()[0]), StringBuilder.class));
+            } catch (Throwable e) {
+                log.debug("can't generate appending converter for {}; fall back to method handle", method, e);
             }
+            MethodHandle handle = MethodHandles.lookup().unreflect(method).bindTo(instance)
+                .asType(MethodType.methodType(void.class, Object.class, StringBuilder.class));
+            return (value, out) -> invoke(handle, value, out);
+        }
+
+        private static Object metafactory(Converter instance, Method method, Class<?> functionalInterface,
+            String name, MethodType erasedType, MethodType instantiatedType) throws Throwable {
+            Class<?> declaringClass = method.getDeclaringClass();
+            Lookup lookup = MethodHandles.privateLookupIn(declaringClass, MethodHandles.lookup());
+            MethodHandle target = lookup.unreflect(method);
+            CallSite callSite = LambdaMetafactory.metafactory(lookup, name,
+                MethodType.methodType(functionalInterface, declaringClass), erasedType, target, instantiatedType);
+            return callSite.getTarget().invoke(instance);
+        }
+
+        @SneakyThrows(Throwable.class)
+        private static Object invoke(MethodHandle handle, Object value) {
+            return handle.invokeExact(value);
+        }
+
+        @SneakyThrows(Throwable.class)
+        private static void invoke(MethodHandle handle, Object value, StringBuilder out) {
+            handle.invokeExact(value, out);
+        }
+
+        public Object convert(Object value) {
+            return (appender == null) ? function.apply(value) : new AppendingConversion(appender, value);
         }
 
         @Override public String toString() {
@@ -34,55 +102,148 @@ public class Converters {
         }
     }
 
+    /**
+     * The result of an appending converter, i.e. a <code>void convert(T value, StringBuilder out)</code>: the value is
+     * only converted when it's {@link ValueRenderer rendered}, and then directly into the message buffer, instead of
+     * into an intermediate string. If the converter fails, the value is appended unconverted.
+     */
+    static final class AppendingConversion {
+        private final BiConsumer<Object, StringBuilder> appender;
+        private final Object value;
+
+        private AppendingConversion(BiConsumer<Object, StringBuilder> appender, Object value) {
+            this.appender = appender;
+            this.value = value;
+        }
+
+        void appendTo(StringBuilder out) {
+            int mark = out.length();
+            try {
+                appender.accept(value, out);
+            } catch (Exception | LinkageError | AssertionError e) { // checked exceptions may be sneaky-thrown
+                log.debug("failed to convert " + value, e);
+                out.setLength(mark);
+                ValueRenderer.append(out, value);
+            }
+        }
+
+        @Override public String toString() {
+            StringBuilder out = new StringBuilder();
+            appendTo(out);
+            return out.toString();
+        }
+    }
+
+    /** Marks types resolved to have no converter, so the negative result is cached as well */
+    private static final ConverterMethod NONE = new ConverterMethod(null, null, null);
+
+    /**
+     * The resolved converter (or {@link #NONE}) per runtime type, so a lookup is one probe instead of a walk over all
+     * superclasses and interfaces. A {@link ClassValue} doesn't pin the classes; it's replaced when converters are
+     * registered.
+     */
+    private class Resolved extends ClassValue<ConverterMethod> {
+        @Override protected ConverterMethod computeValue(Class<?> type) {
+            ConverterMethod converter = findConverter(type);
+            return (converter == null) ? NONE : converter;
+        }
+    }
+
     @Inject
     private Instance<Converter> converterInstances;
 
     private final Map<Class<?>, ConverterMethod> converters = new HashMap<>();
+    private volatile Resolved resolved = new Resolved();
 
     @PostConstruct
     void loadConverters() {
         log.debug("loading converters");
         for (Converter converterInstance : converterInstances) {
-            Class<? extends Converter> converterType = converterInstance.getClass();
-            log.debug("  register converters in {}", converterType);
-            int count = 0;
-            for (Method method : converterType.getMethods()) {
-                if (isConverterMethod(method)) {
-                    Class<?> type = method.getParameterTypes()[0];
-                    log.debug("    register converter for {}", type);
-                    ConverterMethod converterMethod = new ConverterMethod(converterInstance, method);
-                    ConverterMethod old = converters.put(type, converterMethod);
-                    if (old != null)
-                        log.error("ambiguous converters for {}: {} and {}", type, converterMethod, old);
-                    count++;
-                }
-            }
+            register(converterInstance);
             converterInstances.destroy(converterInstance);
-            log.debug("  registered {} converter methods in {}", count, converterType);
         }
         log.debug("converters loaded");
     }
 
-    private boolean isConverterMethod(Method method) {
-        return "convert".equals(method.getName()) && method.getReturnType() != void.class
-               && method.getParameterTypes().length == 1;
+    /** Register the converter methods of one {@link Converter}; also used without a container, e.g. in benchmarks */
+    void register(Converter converterInstance) {
+        Class<? extends Converter> converterType = converterInstance.getClass();
+        log.debug("  register converters in {}", converterType);
+        int count = 0;
+        for (Method method : converterType.getMethods()) {
+            if (isConverterMethod(method) && !hasAppendingVariant(converterType, method)) {
+                Class<?> type = method.getParameterTypes()[0];
+                log.debug("    register converter for {}", type);
+                ConverterMethod converterMethod;
+                try {
+                    converterMethod = ConverterMethod.of(converterInstance, method);
+                } catch (ReflectiveOperationException e) {
+                    log.error("can't access converter {}", method, e);
+                    continue;
+                }
+                ConverterMethod old = converters.put(type, converterMethod);
+                if (old != null)
+                    log.error("ambiguous converters for {}: {} and {}", type, converterMethod, old);
+                count++;
+            }
+        }
+        resolved = new Resolved();
+        log.debug("  registered {} converter methods in {}", count, converterType);
+    }
+
+    private static boolean isConverterMethod(Method method) {
+        return "convert".equals(method.getName())
+               && ((method.getReturnType() != void.class && method.getParameterCount() == 1) || isAppending(method));
+    }
+
+    /** A converter may keep a returning method next to the appending one for the same type; the latter is used */
+    private static boolean hasAppendingVariant(Class<?> converterType, Method method) {
+        if (isAppending(method))
+            return false;
+        Class<?> type = method.getParameterTypes()[0];
+        for (Method other : converterType.getMethods())
+            if ("convert".equals(other.getName()) && isAppending(other) && other.getParameterTypes()[0] == type)
+                return true;
+        return false;
+    }
+
+    /** A <code>void convert(T value, StringBuilder out)</code>; the target may also be an {@link Appendable} */
+    private static boolean isAppending(Method method) {
+        if (method.getReturnType() != void.class || method.getParameterCount() != 2)
+            return false;
+        Class<?> target = method.getParameterTypes()[1];
+        return target == StringBuilder.class || target == Appendable.class;
     }
 
     public Object convert(Object value) {
         if (value == null)
             return null;
-        Class<?> type = value.getClass();
-        ConverterMethod converter = findConverter(type);
-        if (converter != null) {
+        ConverterMethod converter = resolved.get(value.getClass());
+        if (converter != NONE) {
             try {
                 return converter.convert(value);
-            } catch (RuntimeException | LinkageError | AssertionError e) {
+            } catch (Exception | LinkageError | AssertionError e) { // checked exceptions may be sneaky-thrown
                 log.debug("failed to convert " + value, e);
             }
         }
         return value;
     }
 
+    /**
+     * Resolve the converter for a type that is known in advance, e.g. a parameter type, so the first call doesn't
+     * have to. Interfaces and abstract types are skipped, as they are never the runtime type of a value.
+     */
+    public void prewarm(Class<?> type) {
+        type = wrap(type);
+        if (type == Void.class || (!type.isArray() && Modifier.isAbstract(type.getModifiers())))
+            return;
+        resolved.get(type);
+    }
+
+    private static Class<?> wrap(Class<?> type) {
+        return MethodType.methodType(type).wrap().returnType();
+    }
+
     private ConverterMethod findConverter(Class<?> type) {
         ConverterMethod converter = converters.get(type);
         if (converter != null)
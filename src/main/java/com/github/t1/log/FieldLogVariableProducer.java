@@ -4,27 +4,71 @@ import com.github.t1.stereotypes.Annotations;
 import lombok.RequiredArgsConstructor;
 
 import jakarta.interceptor.InvocationContext;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
 import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
 
 import static com.github.t1.log.LogContext.*;
+import static lombok.AccessLevel.PRIVATE;
 
-@RequiredArgsConstructor
+/**
+ * The <code>@LogContext</code> fields of a class and its superclasses are resolved once per class, with the names
+ * from the annotations and a {@link VarHandle} to read the value.
+ */
+@RequiredArgsConstructor(access = PRIVATE)
 public class FieldLogVariableProducer {
-    private final Field field;
-    private final Converters converters;
+    private static final ClassValue<List<FieldLogVariableProducer>> FIELDS = new ClassValue<>() {
+        @Override protected List<FieldLogVariableProducer> computeValue(Class<?> type) {
+            return resolve(type);
+        }
+    };
 
-    public String name() {
-        LogContext logContext = Annotations.on(field).getAnnotation(LogContext.class);
-        return VARIABLE_NAME.equals(logContext.value()) ? field.getName() : logContext.value();
+    /** The fields of the superclasses first, so the fields of the subclasses can override their variables */
+    private static List<FieldLogVariableProducer> resolve(Class<?> type) {
+        List<FieldLogVariableProducer> result = (type.getSuperclass() == null)
+            ? new ArrayList<>() : new ArrayList<>(FIELDS.get(type.getSuperclass()));
+        for (Field field : type.getDeclaredFields()) {
+            LogContext logContext = Annotations.on(field).getAnnotation(LogContext.class);
+            if (logContext == null)
+                continue;
+            String name = VARIABLE_NAME.equals(logContext.value()) ? field.getName() : logContext.value();
+            result.add(new FieldLogVariableProducer(name, varHandle(field), Modifier.isStatic(field.getModifiers()),
+                null));
+        }
+        return List.copyOf(result);
     }
 
-    public String value(InvocationContext context) {
-        field.setAccessible(true);
+    private static VarHandle varHandle(Field field) {
         try {
-            Object value = field.get(context.getTarget());
-            return (value == null) ? "" : converters.convert(value).toString();
+            return MethodHandles.privateLookupIn(field.getDeclaringClass(), MethodHandles.lookup())
+                .unreflectVarHandle(field);
         } catch (IllegalAccessException e) {
-            throw new RuntimeException(e);
+            throw new RuntimeException("can't access log context field " + field, e);
         }
     }
+
+    static List<FieldLogVariableProducer> of(Class<?> type, Converters converters) {
+        List<FieldLogVariableProducer> fields = FIELDS.get(type);
+        List<FieldLogVariableProducer> result = new ArrayList<>(fields.size());
+        for (FieldLogVariableProducer field : fields)
+            result.add(new FieldLogVariableProducer(field.name, field.handle, field.isStatic, converters));
+        return result;
+    }
+
+    private final String name;
+    private final VarHandle handle;
+    private final boolean isStatic;
+    private final Converters converters;
+
+    public String name() {
+        return name;
+    }
+
+    public String value(InvocationContext context) {
+        Object value = isStatic ? handle.get() : handle.get(context.getTarget());
+        return (value == null) ? "" : converters.convert(value).toString();
+    }
 }
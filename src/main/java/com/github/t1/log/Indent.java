@@ -1,21 +1,24 @@
 package com.github.t1.log;
 
-import java.util.*;
-
+/**
+ * The <code>indent</code> MDC values for the nesting depths; the strings for the usual depths are precomputed into an
+ * immutable table, so they are safe to share between threads.
+ */
 public class Indent {
-    private static final List<String> INDENT_STRINGS = new ArrayList<>();
+    private static final String[] INDENT_STRINGS = new String[64];
+
+    static {
+        for (int i = 0; i < INDENT_STRINGS.length; i++)
+            INDENT_STRINGS[i] = spaces(i * 2);
+    }
 
     private Indent() {}
 
     private static String spaces(int length) {
-        char[] chars = new char[length];
-        Arrays.fill(chars, ' ');
-        return new String(chars);
+        return " ".repeat(length);
     }
 
     public static String of(int indent) {
-        for (int i = INDENT_STRINGS.size(); i <= indent; i++)
-            INDENT_STRINGS.add(spaces(i * 2));
-        return INDENT_STRINGS.get(indent);
+        return (indent < INDENT_STRINGS.length) ? INDENT_STRINGS[indent] : spaces(indent * 2);
     }
 }
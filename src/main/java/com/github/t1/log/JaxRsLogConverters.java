@@ -3,6 +3,7 @@ package com.github.t1.log;
 import jakarta.ws.rs.core.*;
 import jakarta.ws.rs.core.Response.StatusType;
 import java.util.List;
+import java.util.Map;
 
 public class JaxRsLogConverters implements Converter {
     public String convert(UriInfo info) {
@@ -21,43 +22,36 @@ public class JaxRsLogConverters implements Converter {
         return ": " + entity.getClass().getSimpleName();
     }
 
-    private static class Printer {
-        private final StringBuilder out = new StringBuilder();
+    /** Only the appending variant is registered; this one is kept for direct callers */
+    public String convert(MultivaluedMap<String, ?> map) {
+        StringBuilder out = new StringBuilder();
+        convert(map, out);
+        return out.toString();
+    }
 
-        public Printer print(MultivaluedMap<String, ?> map) {
-            out.append("{");
-            boolean first = true;
-            for (String key : map.keySet()) {
-                if (first)
-                    first = false;
-                else
-                    out.append(", ");
-                out.append(key).append(":");
-                printValues(map.get(key));
-            }
-            out.append("}");
-            return this;
+    public void convert(MultivaluedMap<String, ?> map, StringBuilder out) {
+        out.append("{");
+        boolean first = true;
+        for (Map.Entry<String, ? extends List<?>> entry : map.entrySet()) {
+            if (first)
+                first = false;
+            else
+                out.append(", ");
+            out.append(entry.getKey()).append(":");
+            printValues(entry.getValue(), out);
         }
+        out.append("}");
+    }
 
-        private void printValues(List<?> values) {
-            if (values.size() > 1) {
-                out.append("[");
-            }
-            for (Object value : values) {
-                out.append(value);
-            }
-            if (values.size() > 1) {
-                out.append("]");
-            }
+    private void printValues(List<?> values, StringBuilder out) {
+        if (values.size() > 1) {
+            out.append("[");
         }
-
-        @Override
-        public String toString() {
-            return out.toString();
+        for (Object value : values) {
+            ValueRenderer.append(out, value);
+        }
+        if (values.size() > 1) {
+            out.append("]");
         }
-    }
-
-    public String convert(MultivaluedMap<String, ?> map) {
-        return new Printer().print(map).toString();
     }
 }
@@ -5,12 +5,13 @@ import lombok.Value;
 import org.slf4j.Logger;
 import org.slf4j.MDC;
 
-import java.time.LocalDateTime;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
 import java.util.Arrays;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
 
 import static com.github.t1.log.JsonLogDetail.ALL;
 import static com.github.t1.log.JsonLogDetail.CONTEXT;
@@ -19,74 +20,32 @@ import static com.github.t1.log.JsonLogDetail.PARAMETERS;
 
 /**
  * Produces a JSON string, using other {@link LogArgument}s.
+ * <p>
+ * The JSON is written directly into the per-thread {@link MessageBuffer}; parameters take precedence over MDC
+ * variables, which take precedence over the event details, and a parameter referenced several times in the message
+ * is written only once, so every key is written only once. The <code>timestamp</code> is the local date time with
+ * exactly three fraction digits, e.g. <code>2024-03-31T02:59:59.999</code>.
  *
  * @see JsonLogDetail
  */
 @Value
 public class JsonLogArgument implements LogArgument {
-    private static class JsonBuilder {
-        private final Map<String, Object> map = new HashMap<>();
+    private static final String[] LEVEL_NAMES = levelNames();
 
-        public void set(String key, Object value) {
-            if (value == null)
-                return;
-            map.put(key, value);
-        }
-
-        @Override
-        public String toString() {
-            StringBuilder out = new StringBuilder();
-            for (Map.Entry<String, Object> entry : map.entrySet()) {
-                if (out.length() != 0)
-                    out.append(",");
-                out.append("\"").append(entry.getKey()).append("\":");
-                appendJson(out, entry.getValue());
-            }
-            return out.toString();
-        }
-
-        private void appendJson(StringBuilder out, Object value) {
-            if (isJsonValue(value)) {
-                out.append(value);
-            } else {
-                appendString(out, value);
-            }
-        }
-
-        private boolean isJsonValue(Object value) {
-            return value instanceof Boolean || value instanceof Number;
-        }
-
-        private void appendString(StringBuilder out, Object value) {
-            out.append('\"');
-            String string = value.toString();
-            for (int i = 0; i < string.length(); i++) {
-                char c = string.charAt(i);
-                if (mustEscape(c))
-                    out.append('\\');
-                out.append(mapped(c));
-            }
-            out.append('\"');
-        }
-
-        private boolean mustEscape(char c) {
-            return c == '\\' || c == '\"' || c == '\n' || c == '\r';
-        }
-
-        private char mapped(char c) {
-            if (c == '\n')
-                return 'n';
-            if (c == '\r')
-                return 'r';
-            return c;
-        }
+    private static String[] levelNames() {
+        LogLevel[] levels = LogLevel.values();
+        String[] names = new String[levels.length];
+        for (int i = 0; i < levels.length; i++)
+            names[i] = levels[i].name().toLowerCase();
+        return names;
     }
 
     List<JsonLogDetail> jsonLogDetail;
     List<LogArgument> parameters;
-    Converters converters;
     Logger logger;
     LogLevel level;
+    /** For the parameters; the MDC variables are already limited, and the event details are short */
+    RenderLimits limits;
 
     @Override
     public String name() {
@@ -100,53 +59,231 @@ public class JsonLogArgument implements LogArgument {
 
     @Override
     public void set(RestorableMdc mdc, InvocationContext context) {
-        Object value = mdcValue(context);
-        mdc.put(name(), value.toString());
+        mdc.put(name(), mdcValue(context));
     }
 
     private String mdcValue(InvocationContext context) {
-        JsonBuilder out = new JsonBuilder();
+        boolean event = isJsonLogDetail(EVENT);
+        boolean mdc = isJsonLogDetail(CONTEXT);
+        boolean params = isJsonLogDetail(PARAMETERS);
 
-        if (isJsonLogDetail(EVENT)) {
-            out.set("timestamp", LocalDateTime.now());
-            out.set("event", context.getMethod().getName());
-            out.set("logger", logger.getName());
-            out.set("level", level.name().toLowerCase());
+        StringBuilder out = MessageBuffer.acquire(128);
+        String json;
+        try {
+            if (params)
+                addMethodParams(context, out);
+            Map<String, String> mdcMap = mdc ? MDC.getCopyOfContextMap() : null;
+            if (mdcMap != null)
+                addMdc(mdcMap, params, context, out);
+            if (event)
+                addEvent(context, mdcMap, params, out);
+        } finally {
+            json = MessageBuffer.release(out);
         }
-
-        if (isJsonLogDetail(CONTEXT))
-            addMdc(out);
-        if (isJsonLogDetail(PARAMETERS))
-            addMethodParams(context, out);
-
-        return out.toString();
+        return json;
     }
 
     private boolean isJsonLogDetail(JsonLogDetail detail) {
         return jsonLogDetail.contains(ALL) || jsonLogDetail.contains(detail);
     }
 
-    private void addMethodParams(InvocationContext context, JsonBuilder out) {
-        for (LogArgument parameter : parameters) {
+    /**
+     * A parameter referenced several times, e.g. with different expressions, is written only once, with the last
+     * value, like the map the JSON was built with before.
+     */
+    private void addMethodParams(InvocationContext context, StringBuilder out) {
+        for (int i = 0; i < parameters.size(); i++) {
+            LogArgument parameter = parameters.get(i);
             if (this == parameter)
                 continue;
             String name = parameter.name();
-            Object value = convert(out, name, parameter.value(context));
-            out.set(name, value);
+            if (isWrittenParameter(name, i + 1, parameters.size(), context))
+                continue;
+            Object value = parameter.value(context); // already converted
+            if (value == null)
+                continue;
+            parameterField(out, name, value);
+            if (value instanceof Throwable)
+                stacktrace(out, name, (Throwable) value);
+        }
+    }
+
+    private void stacktrace(StringBuilder out, String name, Throwable throwable) {
+        separator(out);
+        out.append('\"').append(name).append("-stacktrace\":");
+        string(out, Arrays.toString(throwable.getStackTrace()));
+    }
+
+    private void addMdc(Map<String, String> mdcMap, boolean params, InvocationContext context, StringBuilder out) {
+        for (Map.Entry<String, String> entry : mdcMap.entrySet())
+            if (entry.getValue() != null && !(params && isWrittenParameter(entry.getKey(), context)))
+                field(out, entry.getKey(), entry.getValue());
+    }
+
+    private void addEvent(InvocationContext context, Map<String, String> mdcMap, boolean params, StringBuilder out) {
+        if (isFree("timestamp", mdcMap, params, context)) {
+            separator(out);
+            out.append("\"timestamp\":\"");
+            appendTimestamp(out, System.currentTimeMillis());
+            out.append('\"');
         }
+        if (isFree("event", mdcMap, params, context))
+            field(out, "event", context.getMethod().getName());
+        if (isFree("logger", mdcMap, params, context) && logger.getName() != null)
+            field(out, "logger", logger.getName());
+        if (isFree("level", mdcMap, params, context))
+            field(out, "level", LEVEL_NAMES[level.ordinal()]);
     }
 
-    private Object convert(JsonBuilder out, String name, Object value) {
-        value = converters.convert(value);
-        if (value instanceof Throwable)
-            out.set(name + "-stacktrace", Arrays.toString(((Throwable) value).getStackTrace()));
-        return value;
+    private boolean isFree(String key, Map<String, String> mdcMap, boolean params, InvocationContext context) {
+        return !(params && isWrittenParameter(key, context)) && (mdcMap == null || mdcMap.get(key) == null);
     }
 
-    private void addMdc(JsonBuilder out) {
-        Set<String> keys = MDC.getCopyOfContextMap().keySet();
-        for (String key : keys) {
-            out.set(key, MDC.get(key));
+    private boolean isWrittenParameter(String key, InvocationContext context) {
+        return isWrittenParameter(key, 0, parameters.size(), context);
+    }
+
+    /**
+     * Is there a parameter with this name in the index range that has a value, i.e. that is written? The names are
+     * compared first, so only the values of the parameters with the same name are looked up again, which is cheap,
+     * as the values of one invocation are evaluated only once.
+     */
+    private boolean isWrittenParameter(String key, int from, int to, InvocationContext context) {
+        for (int i = from; i < to; i++) {
+            LogArgument parameter = parameters.get(i);
+            if (this != parameter && parameter.name().equals(key) && parameter.value(context) != null)
+                return true;
         }
+        return false;
+    }
+
+    private static void field(StringBuilder out, String key, Object value) {
+        separator(out);
+        out.append('\"').append(key).append("\":");
+        if (value instanceof Boolean || value instanceof Number) {
+            ValueRenderer.append(out, value);
+        } else {
+            string(out, value.toString());
+        }
+    }
+
+    private void parameterField(StringBuilder out, String key, Object value) {
+        separator(out);
+        out.append('\"').append(key).append("\":");
+        if (value instanceof Boolean || value instanceof Number) {
+            ValueRenderer.append(out, value);
+        } else {
+            out.append('\"');
+            int start = out.length();
+            ValueRenderer.append(out, value, limits);
+            escape(out, start);
+            out.append('\"');
+        }
+    }
+
+    /** Escape what has been rendered from <code>start</code> on in place, so it doesn't need a string of its own */
+    private static void escape(StringBuilder out, int start) {
+        for (int i = start; i < out.length(); i++) {
+            char c = out.charAt(i);
+            if (mustEscape(c)) {
+                out.setCharAt(i, mapped(c));
+                out.insert(i++, '\\');
+            }
+        }
+    }
+
+    private static void separator(StringBuilder out) {
+        if (out.length() != 0)
+            out.append(',');
+    }
+
+    private static void string(StringBuilder out, String string) {
+        out.append('\"');
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            if (mustEscape(c))
+                out.append('\\');
+            out.append(mapped(c));
+        }
+        out.append('\"');
+    }
+
+    private static boolean mustEscape(char c) {
+        return c == '\\' || c == '\"' || c == '\n' || c == '\r';
+    }
+
+    private static char mapped(char c) {
+        if (c == '\n')
+            return 'n';
+        if (c == '\r')
+            return 'r';
+        return c;
+    }
+
+    // ---------------------------------------------------------------------------------------------- timestamp
+
+    /** The offset of the system time zone, valid between two transitions, e.g. to or from daylight saving time */
+    private static class ZoneOffsetCache {
+        private final long offsetMillis;
+        private final long validFrom;
+        private final long validUntil;
+
+        ZoneOffsetCache(long epochMillis) {
+            ZoneRules rules = ZoneId.systemDefault().getRules();
+            Instant instant = Instant.ofEpochMilli(epochMillis);
+            this.offsetMillis = rules.getOffset(instant).getTotalSeconds() * 1000L;
+            ZoneOffsetTransition previous = rules.previousTransition(instant);
+            this.validFrom = (previous == null) ? Long.MIN_VALUE : previous.toEpochSecond() * 1000L;
+            ZoneOffsetTransition next = rules.nextTransition(instant);
+            this.validUntil = (next == null) ? Long.MAX_VALUE : next.toEpochSecond() * 1000L;
+        }
+
+        boolean isValidAt(long epochMillis) {
+            return epochMillis >= validFrom && epochMillis < validUntil;
+        }
+    }
+
+    private static volatile ZoneOffsetCache zoneOffset = new ZoneOffsetCache(System.currentTimeMillis());
+
+    private static long localMillis(long epochMillis) {
+        ZoneOffsetCache offset = zoneOffset;
+        if (!offset.isValidAt(epochMillis))
+            zoneOffset = offset = new ZoneOffsetCache(epochMillis);
+        return epochMillis + offset.offsetMillis;
+    }
+
+    /** Append the local date time in ISO format with milliseconds, like <code>LocalDateTime#toString</code> */
+    static void appendTimestamp(StringBuilder out, long epochMillis) {
+        long millis = localMillis(epochMillis);
+        long days = Math.floorDiv(millis, 86_400_000L);
+        int millisOfDay = (int) Math.floorMod(millis, 86_400_000L);
+
+        // civil from days, see http://howardhinnant.github.io/date_algorithms.html
+        long z = days + 719_468;
+        long era = Math.floorDiv(z, 146_097);
+        long dayOfEra = z - era * 146_097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36_524 - dayOfEra / 146_096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+
+        out.append(year).append('-');
+        twoDigits(out, month).append('-');
+        twoDigits(out, day).append('T');
+        twoDigits(out, millisOfDay / 3_600_000).append(':');
+        twoDigits(out, millisOfDay / 60_000 % 60).append(':');
+        twoDigits(out, millisOfDay / 1000 % 60).append('.');
+        int fraction = millisOfDay % 1000;
+        if (fraction < 100)
+            out.append('0');
+        twoDigits(out, fraction);
+    }
+
+    private static StringBuilder twoDigits(StringBuilder out, int value) {
+        if (value < 10)
+            out.append('0');
+        return out.append(value);
     }
 }
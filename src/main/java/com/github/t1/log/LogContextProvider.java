@@ -0,0 +1,56 @@
+package com.github.t1.log;
+
+import jakarta.enterprise.concurrent.spi.ThreadContextProvider;
+import jakarta.enterprise.concurrent.spi.ThreadContextSnapshot;
+
+import jakarta.enterprise.inject.spi.CDI;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Propagates the {@link LogContextSnapshot log context} to the tasks of <code>ManagedExecutorService</code>s and the
+ * contextual proxies of <code>ContextService</code>s, as the thread context type {@value #TYPE}. The cleared context
+ * removes the MDC variables the logged calls may set, so a task doesn't see what an earlier task left on the thread.
+ */
+public class LogContextProvider implements ThreadContextProvider {
+    public static final String TYPE = "LogContext";
+    private static final String[] NO_KEYS = new String[0];
+
+    /** The log points of the container that contextualizes the task, or <code>null</code> */
+    private final Supplier<LogPointCache> logPoints;
+
+    public LogContextProvider() {
+        this(LogContextProvider::containerLogPoints);
+    }
+
+    LogContextProvider(Supplier<LogPointCache> logPoints) {
+        this.logPoints = logPoints;
+    }
+
+    private static LogPointCache containerLogPoints() {
+        try {
+            return CDI.current().select(LogPointCache.class).get();
+        } catch (RuntimeException e) { // no container or no log points
+            return null;
+        }
+    }
+
+    @Override public ThreadContextSnapshot currentContext(Map<String, String> props) {
+        return snapshot(LogContextSnapshot.capture());
+    }
+
+    @Override public ThreadContextSnapshot clearedContext(Map<String, String> props) {
+        LogPointCache cache = logPoints.get();
+        // the keys of all log points built so far
+        return () -> LogContextSnapshot.cleared((cache == null) ? NO_KEYS : cache.mdcKeys()).install()::close;
+    }
+
+    private static ThreadContextSnapshot snapshot(LogContextSnapshot snapshot) {
+        return () -> snapshot.install()::close;
+    }
+
+    @Override public String getThreadContextType() {
+        return TYPE;
+    }
+}
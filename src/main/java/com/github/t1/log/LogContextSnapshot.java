@@ -0,0 +1,167 @@
+package com.github.t1.log;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The log context of the current thread, to be handed off to another thread, e.g. with a task for an executor, a
+ * <code>CompletableFuture</code> stage, or a parallel stream. It contains only the MDC variables set by the logged
+ * calls, i.e. the <code>@LogContext</code> parameters and fields, the variables of the producers, the
+ * <code>indent</code>, etc., not the rest of the MDC, and the nesting depth, so nested logged calls are indented
+ * further. The snapshot is immutable, so it can be installed on any number of threads.
+ * <p>
+ * Installing a snapshot opens a normal MDC scope on the worker thread, so it's cheap, and only the keys that differ are
+ * written; closing it restores the previous values. If there is nothing to hand off, the tasks are not even wrapped.
+ * <p>
+ * For <code>ManagedExecutorService</code>s and <code>ContextService</code>s, the {@link LogContextProvider} propagates
+ * the snapshots automatically, and it {@link #cleared(String[]) clears} the log context for tasks that must not inherit one.
+ */
+public final class LogContextSnapshot {
+    static final LogContextSnapshot EMPTY = new LogContextSnapshot(new String[0], new String[0], -1);
+
+    /**
+     * Removes the MDC variables that the logged calls may set, i.e. the {@link LogPointCache#mdcKeys()}, e.g. left
+     * over on a pooled thread by an earlier task; closing it restores them. Other MDC variables are not touched.
+     */
+    static LogContextSnapshot cleared(String[] keys) {
+        return (keys.length == 0) ? EMPTY : new LogContextSnapshot(keys, new String[keys.length], -1);
+    }
+
+    /** The installed snapshot; to be closed on the same thread. */
+    public interface Scope extends AutoCloseable {
+        @Override void close();
+    }
+
+    private static final Scope NOTHING = () -> {};
+
+    /** The log context of the current thread, or the one {@link ScopedLogContext inherited} by a subtask */
+    public static LogContextSnapshot capture() {
+        LogContextSnapshot snapshot = RestorableMdc.snapshot();
+        if (snapshot.isEmpty()) {
+            LogContextSnapshot inherited = ScopedLogContext.current();
+            if (inherited != null)
+                return inherited;
+        }
+        return snapshot;
+    }
+
+    /** An executor that hands the log context of the submitting thread to the tasks */
+    public static Executor decorate(Executor executor) {
+        return task -> executor.execute(capture().wrap(task));
+    }
+
+    /** An executor service that hands the log context of the submitting thread to the tasks */
+    public static ExecutorService decorate(ExecutorService executor) {
+        return new LogContextExecutorService(executor);
+    }
+
+    private final String[] keys;
+    private final String[] values;
+    private final int depth;
+
+    LogContextSnapshot(String[] keys, String[] values, int depth) {
+        this.keys = keys;
+        this.values = values;
+        this.depth = depth;
+    }
+
+    public boolean isEmpty() {
+        return this == EMPTY;
+    }
+
+    /** The value of an MDC variable in this snapshot, or <code>null</code> */
+    public String get(String key) {
+        for (int i = 0; i < keys.length; i++)
+            if (keys[i].equals(key))
+                return values[i];
+        return null;
+    }
+
+    void putMissingInto(Map<String, String> map) {
+        for (int i = 0; i < keys.length; i++)
+            if (values[i] != null)
+                map.putIfAbsent(keys[i], values[i]);
+    }
+
+    /** Put the log context into the MDC of the current thread, until the scope is closed */
+    public Scope install() {
+        if (isEmpty())
+            return NOTHING;
+        RestorableMdc mdc = RestorableMdc.open(keys.length);
+        for (int i = 0; i < keys.length; i++)
+            mdc.put(keys[i], values[i]);
+        mdc.setDepth(depth);
+        mdc.apply();
+        return mdc::restore;
+    }
+
+    public Runnable wrap(Runnable task) {
+        if (isEmpty())
+            return task;
+        return () -> {
+            try (Scope ignored = install()) {
+                task.run();
+            }
+        };
+    }
+
+    public <T> Callable<T> wrap(Callable<T> task) {
+        if (isEmpty())
+            return task;
+        return () -> {
+            try (Scope ignored = install()) {
+                return task.call();
+            }
+        };
+    }
+
+    public <T> Supplier<T> wrap(Supplier<T> supplier) {
+        if (isEmpty())
+            return supplier;
+        return () -> {
+            try (Scope ignored = install()) {
+                return supplier.get();
+            }
+        };
+    }
+
+    public <T, R> Function<T, R> wrap(Function<T, R> function) {
+        if (isEmpty())
+            return function;
+        return value -> {
+            try (Scope ignored = install()) {
+                return function.apply(value);
+            }
+        };
+    }
+
+    /** The submit and invoke methods of the {@link AbstractExecutorService} all go through {@link #execute} */
+    private static class LogContextExecutorService extends AbstractExecutorService {
+        private final ExecutorService delegate;
+
+        LogContextExecutorService(ExecutorService delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override public void execute(Runnable task) {delegate.execute(capture().wrap(task));}
+
+        @Override public void shutdown() {delegate.shutdown();}
+
+        @Override public List<Runnable> shutdownNow() {return delegate.shutdownNow();}
+
+        @Override public boolean isShutdown() {return delegate.isShutdown();}
+
+        @Override public boolean isTerminated() {return delegate.isTerminated();}
+
+        @Override public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+            return delegate.awaitTermination(timeout, unit);
+        }
+    }
+}
@@ -4,8 +4,9 @@ import lombok.Value;
 import lombok.experimental.Accessors;
 
 /**
- * A variable that can be added to the {@link org.slf4j.MDC}. If a producer returns <code>null</code>, nothing will be
- * added.
+ * A variable that can be added to the {@link org.slf4j.MDC}. If a producer returns <code>null</code> or a variable
+ * without a value, nothing will be added. The variables of <code>@Singleton</code> or <code>@ApplicationScoped</code>
+ * producers are considered constant, so they are produced only once.
  */
 @Value
 @Accessors(fluent = true)
@@ -0,0 +1,122 @@
+package com.github.t1.log;
+
+import jakarta.enterprise.context.ApplicationScoped;
+import jakarta.enterprise.context.Dependent;
+import jakarta.enterprise.context.spi.CreationalContext;
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.spi.Bean;
+import jakarta.enterprise.inject.spi.BeanManager;
+import jakarta.inject.Singleton;
+
+import java.lang.annotation.Annotation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * The {@link LogContextVariable}s of a {@link LogPoint}, classified when the log point is built: the variables of
+ * <code>@Singleton</code> or <code>@ApplicationScoped</code> producers are constant, so they are evaluated only once;
+ * the beans of the other producers, e.g. <code>@Dependent</code> producers that read some per-request state, are
+ * resolved only once, too, but they are invoked for every call. Plain collections of variables, e.g. in tests, are
+ * constant.
+ */
+class LogContextVariables {
+    private static final LogContextVariable[] NONE = new LogContextVariable[0];
+    private static final Bean<?>[] NO_PRODUCERS = new Bean<?>[0];
+
+    static LogContextVariables of(Iterable<LogContextVariable> variables) {
+        List<LogContextVariable> constants = new ArrayList<>();
+        for (LogContextVariable variable : variables)
+            addIfNotNull(constants, variable);
+        return new LogContextVariables(constants.toArray(NONE), NO_PRODUCERS, null, key -> {});
+    }
+
+    /** @param mdcKeys where to register the keys of the non-constant producers, when they are produced */
+    static LogContextVariables of(Instance<LogContextVariable> instance, BeanManager beanManager,
+        Consumer<String> mdcKeys) {
+        List<LogContextVariable> constants = new ArrayList<>();
+        List<Bean<?>> producers = new ArrayList<>();
+        for (Instance.Handle<LogContextVariable> handle : instance.handles()) {
+            if (isConstant(handle.getBean()))
+                addIfNotNull(constants, handle.get());
+            else
+                producers.add(handle.getBean());
+        }
+        return new LogContextVariables(constants.toArray(NONE), producers.toArray(NO_PRODUCERS), beanManager, mdcKeys);
+    }
+
+    private static boolean isConstant(Bean<?> bean) {
+        Class<? extends Annotation> scope = bean.getScope();
+        return scope == Singleton.class || scope == ApplicationScoped.class;
+    }
+
+    /** Producers are allowed to return <code>null</code>, and a variable may have no value */
+    private static void addIfNotNull(List<LogContextVariable> list, LogContextVariable variable) {
+        if (variable != null && variable.value() != null)
+            list.add(variable);
+    }
+
+    private final LogContextVariable[] constants;
+    /** The beans of the non-constant producers */
+    private final Bean<?>[] producers;
+    /** Only set, if there are non-constant producers */
+    private final BeanManager beanManager;
+    private final Consumer<String> mdcKeys;
+    /**
+     * The last key of every non-constant producer; usually the same constant string every time, so the
+     * {@link #mdcKeys} are only told about a new key. The races are benign, as a key may be registered repeatedly.
+     */
+    private final String[] producedKeys;
+
+    private LogContextVariables(LogContextVariable[] constants, Bean<?>[] producers, BeanManager beanManager,
+        Consumer<String> mdcKeys) {
+        this.constants = constants;
+        this.producers = producers;
+        this.beanManager = beanManager;
+        this.mdcKeys = mdcKeys;
+        this.producedKeys = new String[producers.length];
+    }
+
+    /** The number of constant variables; the others are only known per call */
+    int constantSize() {
+        return constants.length;
+    }
+
+    /** The keys of the non-constant producers are only known when they are produced */
+    void addConstantKeysTo(Consumer<String> keys) {
+        for (LogContextVariable variable : constants)
+            keys.accept(variable.key());
+    }
+
+    /** The constants are a plain array loop; the non-constant producers are invoked for every call */
+    void addTo(RestorableMdc mdc) {
+        for (LogContextVariable variable : constants)
+            mdc.put(variable.key(), variable.value());
+        for (int i = 0; i < producers.length; i++)
+            put(mdc, i, produce(producers[i]));
+    }
+
+    /**
+     * The reference is the instance itself, as a {@link LogContextVariable} can't be proxied. A
+     * <code>@Dependent</code> variable belongs to this call only, so it's released right away.
+     */
+    private LogContextVariable produce(Bean<?> bean) {
+        CreationalContext<?> context = beanManager.createCreationalContext(bean);
+        LogContextVariable variable = (LogContextVariable) beanManager.getReference(bean, LogContextVariable.class,
+            context);
+        if (bean.getScope() == Dependent.class)
+            context.release();
+        return variable;
+    }
+
+    private void put(RestorableMdc mdc, int producer, LogContextVariable variable) {
+        if (variable != null && variable.value() != null) {
+            String key = variable.key();
+            if (!key.equals(producedKeys[producer])) {
+                producedKeys[producer] = key;
+                mdcKeys.accept(key);
+            }
+            mdc.put(key, variable.value());
+        }
+    }
+}
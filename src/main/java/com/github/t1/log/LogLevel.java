@@ -7,6 +7,8 @@ public enum LogLevel {
     ALL {
         @Override public boolean isEnabled(Logger logger) {return true;}
 
+        @Override public void log(Logger logger, String message) {logger.trace(message);}
+
         @Override public void log(Logger logger, String message, Object... args) {logger.trace(message, args);}
 
         @Override
@@ -15,6 +17,8 @@ public enum LogLevel {
     TRACE {
         @Override public boolean isEnabled(Logger logger) {return logger.isTraceEnabled();}
 
+        @Override public void log(Logger logger, String message) {logger.trace(message);}
+
         @Override public void log(Logger logger, String message, Object... args) {logger.trace(message, args);}
 
         @Override
@@ -23,6 +27,8 @@ public enum LogLevel {
     DEBUG {
         @Override public boolean isEnabled(Logger logger) {return logger.isDebugEnabled();}
 
+        @Override public void log(Logger logger, String message) {logger.debug(message);}
+
         @Override public void log(Logger logger, String message, Object... args) {
             logger.debug(message, args);
         }
@@ -33,6 +39,8 @@ public enum LogLevel {
     INFO {
         @Override public boolean isEnabled(Logger logger) {return logger.isInfoEnabled();}
 
+        @Override public void log(Logger logger, String message) {logger.info(message);}
+
         @Override public void log(Logger logger, String message, Object... args) {logger.info(message, args);}
 
         @Override
@@ -41,6 +49,8 @@ public enum LogLevel {
     WARN {
         @Override public boolean isEnabled(Logger logger) {return logger.isWarnEnabled();}
 
+        @Override public void log(Logger logger, String message) {logger.warn(message);}
+
         @Override public void log(Logger logger, String message, Object... args) {logger.warn(message, args);}
 
         @Override
@@ -49,6 +59,8 @@ public enum LogLevel {
     ERROR {
         @Override public boolean isEnabled(Logger logger) {return logger.isErrorEnabled();}
 
+        @Override public void log(Logger logger, String message) {logger.error(message);}
+
         @Override public void log(Logger logger, String message, Object... args) {logger.error(message, args);}
 
         @Override
@@ -57,6 +69,8 @@ public enum LogLevel {
     OFF {
         @Override public boolean isEnabled(Logger logger) {return false;}
 
+        @Override public void log(Logger logger, String message) {}
+
         @Override public void log(Logger logger, String message, Object... args) {}
 
         @Override
@@ -66,6 +80,8 @@ public enum LogLevel {
     _DERIVED_ {
         @Override public boolean isEnabled(Logger logger) {throw new UnsupportedOperationException();}
 
+        @Override public void log(Logger logger, String message) {throw new UnsupportedOperationException();}
+
         @Override
         public void log(Logger logger, String message, Object... args) {throw new UnsupportedOperationException();}
 
@@ -77,6 +93,9 @@ public enum LogLevel {
 
     public abstract boolean isEnabled(Logger logger);
 
+    /** Log a complete message, i.e. without any placeholders to be formatted by the logging framework. */
+    public abstract void log(Logger logger, String message);
+
     public abstract void log(Logger logger, String message, Object... args);
 
     public abstract void log(Logger logger, String message, Throwable throwable);
@@ -0,0 +1,36 @@
+package com.github.t1.log;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+/**
+ * The {@link Logged#limits() limits} for rendering a single parameter or return value into a log message, so a huge
+ * string, collection, or array doesn't get logged completely. The renderers stop as soon as a limit is reached and
+ * append <code>...</code> instead of the rest.
+ * <p>
+ * Every limit defaults to the global limit, which can be set with a system property
+ * <code>com.github.t1.log.</code><i>name</i>, e.g. <code>-Dcom.github.t1.log.maxLength=1000</code>. The limits apply
+ * to the message, to the <code>@LogContext</code> parameters in the MDC, and to the parameters in the JSON.
+ * Negative limits, other than {@link #GLOBAL}, are rejected with an {@link IllegalArgumentException}.
+ */
+@Target({})
+@Retention(RUNTIME)
+public @interface LogLimits {
+    /** Use the global limit */
+    int GLOBAL = -1;
+    int UNLIMITED = Integer.MAX_VALUE;
+
+    /** The maximum number of characters of one value. Defaults to 10000. */
+    int maxLength() default GLOBAL;
+
+    /** The maximum number of elements of a collection or an array (or bytes of a byte array). Defaults to 100. */
+    int maxElements() default GLOBAL;
+
+    /** The maximum number of entries of a map. Defaults to 100. */
+    int maxEntries() default GLOBAL;
+
+    /** The maximum depth of nested collections, maps, and arrays. Defaults to 5. */
+    int maxDepth() default GLOBAL;
+}
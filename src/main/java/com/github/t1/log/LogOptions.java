@@ -0,0 +1,28 @@
+package com.github.t1.log;
+
+import lombok.Value;
+import lombok.With;
+
+/**
+ * The switches of a {@link LoggingInterceptor} and its {@link LogPoint}s. The global options are read from the
+ * <code>com.github.t1.log.*</code> system properties only once; tests can pass their own options instead.
+ */
+@Value
+@With
+class LogOptions {
+    private static final LogOptions GLOBAL = new LogOptions(NanoClock.SYSTEM, LogPoint.NUMERIC_DEPTH,
+        RestorableMdc.BATCHED, ScopedLogContext.ENABLED, LogPointSpecializer.ENABLED);
+
+    static LogOptions global() {return GLOBAL;}
+
+    /** Times the logged invocations */
+    NanoClock clock;
+    /** Put the nesting depth as a number into the MDC variable <code>depth</code>, instead of an <code>indent</code> */
+    boolean numericDepth;
+    /** Write the MDC changes as one map instead of key by key */
+    boolean batched;
+    /** Bind the log context to a <code>ScopedValue</code>; only if they are {@link ScopedLogContext#isAvailable()} */
+    boolean scoped;
+    /** Generate a {@link LogPointSpecializer specialized} class for every standard log point */
+    boolean specialized;
+}
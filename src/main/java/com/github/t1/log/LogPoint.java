@@ -1,15 +1,30 @@
 package com.github.t1.log;
 
-import lombok.RequiredArgsConstructor;
 import lombok.experimental.Delegate;
-import org.slf4j.helpers.MessageFormatter;
 
 import jakarta.interceptor.InvocationContext;
-import java.util.*;
 
-@RequiredArgsConstructor
+import java.util.function.Consumer;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
 abstract class LogPoint {
     private static final String INDENT = "indent";
+    private static final String DEPTH = "depth";
+    private static final String TIME = "time";
+    /**
+     * Most invocations are fast and not nested deeply, so we don't have to allocate a new string for the MDC
+     * variables <code>time</code> and <code>depth</code>
+     */
+    private static final String[] NUMBER_STRINGS = new String[1000];
+
+    static {
+        for (int i = 0; i < NUMBER_STRINGS.length; i++)
+            NUMBER_STRINGS[i] = Integer.toString(i);
+    }
+
+    /** Put the nesting depth as a number into the MDC variable <code>depth</code>, instead of an <code>indent</code> */
+    static final boolean NUMERIC_DEPTH = Boolean.getBoolean("com.github.t1.log.depth");
 
     static class NullLogPoint extends LogPoint {
         NullLogPoint(LogPointContext context) {
@@ -20,16 +35,13 @@ abstract class LogPoint {
         protected void logCallDo(InvocationContext context) {}
 
         @Override
-        public void logCall(InvocationContext invocationContext) {}
+        public void logCall(RestorableMdc mdc, InvocationContext invocationContext) {}
 
         @Override
-        public void logResult(Object result, long time) {}
+        public void logResult(RestorableMdc mdc, Object result, long nanos) {}
 
         @Override
-        public void logException(Exception e, long time) {}
-
-        @Override
-        public void done() {}
+        public void logException(Exception e, long nanos) {}
     }
 
     static class StandardLogPoint extends LogPoint {
@@ -39,15 +51,19 @@ abstract class LogPoint {
 
         @Override
         protected void logCallDo(InvocationContext context) {
-            level().log(logger(), messageFormat(), parameterValues(context));
+            level().log(logger(), messageTemplate().render(context));
         }
+    }
 
-        private Object[] parameterValues(InvocationContext context) {
-            List<Object> result = new ArrayList<>();
-            for (LogArgument parameter : logArguments()) {
-                result.add(parameter.value(context));
-            }
-            return result.toArray();
+    /** Hands lazy arguments to slf4j, so they are only evaluated when the logging backend formats the message */
+    static class LazyLogPoint extends LogPoint {
+        LazyLogPoint(LogPointContext context) {
+            super(context);
+        }
+
+        @Override
+        protected void logCallDo(InvocationContext context) {
+            level().log(logger(), messageTemplate().format(), messageTemplate().lazyArguments(context));
         }
     }
 
@@ -61,96 +77,155 @@ abstract class LogPoint {
 
         @Override
         protected void logCallDo(InvocationContext invocation) {
-            level().log(logger(), messageFormat(invocation), (Throwable) throwableParameter.value(invocation));
-        }
-
-        private String messageFormat(InvocationContext context) {
-            List<Object> result = new ArrayList<>();
-            for (LogArgument parameter : logArguments()) {
-                result.add(parameter.value(context));
-            }
-            return MessageFormatter.arrayFormat(messageFormat(), result.toArray()).getMessage();
+            level().log(logger(), messageTemplate().render(invocation), (Throwable) throwableParameter.value(invocation));
         }
     }
 
     @Delegate
     private final LogPointContext context;
-    private final RestorableMdc mdc = new RestorableMdc();
 
-    public void logCall(InvocationContext invocationContext) {
-        addLogContextVariables();
-        addFieldLogContextVariables(invocationContext);
-        addParameterLogContexts(invocationContext);
-
-        if (!messageFormat().isEmpty() && level().isEnabled(logger()) && repeatController().shouldRepeat()) {
-            incrementIndentLogContext();
-            logCallDo(invocationContext);
+    LogPoint(LogPointContext context) {
+        this.context = context;
+    }
+
+    /**
+     * The keys this log point may put into the MDC, so a {@link LogContextSnapshot#cleared(String[]) cleared} context
+     * has them; registered once, when the log point is built.
+     */
+    void addMdcKeysTo(Consumer<String> keys) {
+        if (logContextParameters() == null)
+            return;
+        keys.accept(INDENT);
+        keys.accept(DEPTH);
+        keys.accept(TIME);
+        logContextVariables().addConstantKeysTo(keys);
+        for (FieldLogVariableProducer field : fieldLogContexts())
+            keys.accept(field.name());
+        for (LogArgument parameter : logContextParameters())
+            if (parameter instanceof ParameterLogArgument)
+                keys.accept(((ParameterLogArgument) parameter).logContextVariableName());
+        for (LogArgument argument : mdcLogArguments())
+            if (!(argument instanceof MdcLogArgument))
+                keys.accept(argument.name());
+    }
+
+    /** The MDC scope for one invocation of this log point; to be restored when the invocation is done. */
+    public RestorableMdc openMdc() {
+        return RestorableMdc.open(mdcCapacity(), options().isBatched());
+    }
+
+    /**
+     * The log context is always set, as other log statements may need it, even when this log point's level is
+     * disabled. Everything else is only done when it's going to be logged. The MDC changes are applied as a batch,
+     * before the message is logged and before the method is called.
+     * <p>
+     * The parameter arguments are evaluated only once, into an {@link ArgumentSnapshot}, which is only opened when
+     * there are parameter log contexts or the level is enabled.
+     */
+    public void logCall(RestorableMdc mdc, InvocationContext invocationContext) {
+        ArgumentSnapshot arguments = logContextParameters().isEmpty() ? null : openArguments(invocationContext);
+        try {
+            addLogContextVariables(mdc);
+            addFieldLogContextVariables(mdc, invocationContext);
+            if (arguments != null)
+                addParameterLogContexts(mdc, arguments);
+
+            if (isEnabled()) {
+                if (arguments == null)
+                    arguments = openArguments(invocationContext);
+                InvocationContext context = (arguments == null) ? invocationContext : arguments;
+                if (!mdcLogArguments().isEmpty())
+                    mdc.apply(); // the json argument reads the log context from the MDC
+                addMdcLogArguments(mdc, context);
+                if (!messageTemplate().isEmpty() && repeatController().shouldRepeat()) {
+                    incrementIndentLogContext(mdc);
+                    mdc.apply();
+                    logCallDo(context);
+                }
+            }
+            mdc.apply();
+        } finally {
+            if (arguments != null)
+                arguments.close();
         }
     }
 
-    private void addLogContextVariables() {
-        for (LogContextVariable variable : logContextVariables()) {
-            if (variable == null) // producers are allowed to return null
-                continue;
-            String key = variable.key();
-            String value = variable.value();
-            mdc.put(key, value);
-        }
+    /** Overridden by the {@link LogPointSpecializer generated} log points, to call the logger directly */
+    protected boolean isEnabled() {
+        return level().isEnabled(logger());
+    }
+
+    private ArgumentSnapshot openArguments(InvocationContext invocationContext) {
+        return (argumentSlots() == 0) ? null : ArgumentSnapshot.open(invocationContext, argumentSlots());
+    }
+
+    private void addLogContextVariables(RestorableMdc mdc) {
+        logContextVariables().addTo(mdc);
     }
 
-    private void addFieldLogContextVariables(InvocationContext invocationContext) {
-        for (FieldLogVariableProducer field : fieldLogContexts()) {
+    // the following loops are indexed, so they don't produce any iterator garbage;
+    // the generated log points unroll the loops over the arguments
+
+    private void addFieldLogContextVariables(RestorableMdc mdc, InvocationContext invocationContext) {
+        for (int i = 0; i < fieldLogContexts().size(); i++) {
+            FieldLogVariableProducer field = fieldLogContexts().get(i);
             String name = field.name();
             String value = field.value(invocationContext);
             mdc.put(name, value);
         }
     }
 
-    private void addParameterLogContexts(InvocationContext context) {
-        for (LogArgument parameter : logArguments()) {
-            parameter.set(mdc, context);
+    protected void addParameterLogContexts(RestorableMdc mdc, InvocationContext context) {
+        for (int i = 0; i < logContextParameters().size(); i++) {
+            logContextParameters().get(i).set(mdc, context);
         }
     }
 
-    private void incrementIndentLogContext() {
-        int indent = getIndentLogContext();
-        setIndentLogContext(indent + 1);
-    }
-
-    private int getIndentLogContext() {
-        String indent = mdc.get(INDENT);
-        return (indent == null) ? -1 : indent.length() / 2;
+    protected void addMdcLogArguments(RestorableMdc mdc, InvocationContext context) {
+        for (int i = 0; i < mdcLogArguments().size(); i++) {
+            mdcLogArguments().get(i).set(mdc, context);
+        }
     }
 
-    private void setIndentLogContext(int indent) {
-        mdc.put(INDENT, Indent.of(indent));
+    /** The depth is counted in the MDC scopes, not parsed from the MDC */
+    private void incrementIndentLogContext(RestorableMdc mdc) {
+        int depth = mdc.incrementDepth();
+        if (options().isNumericDepth())
+            mdc.put(DEPTH, numberString(depth));
+        else
+            mdc.put(INDENT, Indent.of(depth));
     }
 
     protected abstract void logCallDo(InvocationContext context);
 
-    public void logResult(Object result, long time) {
-        if (!voidMethod() && !returnFormat().isEmpty()) {
-            mdc.put("time", String.valueOf(time));
-            level().log(logger(), returnMessage(result, time));
+    public void logResult(RestorableMdc mdc, Object result, long nanos) {
+        if (!voidMethod() && !returnFormat().isEmpty() && isEnabled()) {
+            mdc.put(TIME, numberString(timeUnit().convert(nanos, NANOSECONDS)));
+            mdc.apply();
+            level().log(logger(), returnFormat().render(result, nanos, converters()));
         }
     }
 
-    private String returnMessage(Object result, long time) {
-        String message = context.returnFormat();
-        // simplistic implementation; order is important
-        message = message.replace("{time}", String.valueOf(time));
-        message = message.replace("{returnValue}", Objects.toString(converters().convert(result)));
-        return message;
+    private static String numberString(long number) {
+        return (number >= 0 && number < NUMBER_STRINGS.length) ? NUMBER_STRINGS[(int) number] : Long.toString(number);
     }
 
-    public void logException(Exception e, long time) {
-        level().log(logger(), "failed with {} [time:{}]", toString(e), time);
+    public void logException(Exception e, long nanos) {
+        if (isEnabled())
+            level().log(logger(), failureMessage(e, timeUnit().convert(nanos, NANOSECONDS)));
     }
 
-    private String toString(Exception e) {
-        StringBuilder out = new StringBuilder();
-        toString(out, e);
-        return out.toString();
+    private String failureMessage(Exception e, long time) {
+        StringBuilder out = MessageBuffer.acquire(64);
+        String message;
+        try {
+            out.append("failed with ");
+            toString(out, e);
+            out.append(" [time:").append(time).append(']');
+        } finally {
+            message = MessageBuffer.release(out);
+        }
+        return message;
     }
 
     private void toString(StringBuilder out, Throwable e) {
@@ -163,8 +238,4 @@ abstract class LogPoint {
             toString(out, e.getCause());
         }
     }
-
-    public void done() {
-        mdc.restore();
-    }
 }
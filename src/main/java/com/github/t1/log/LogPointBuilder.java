@@ -1,5 +1,6 @@
 package com.github.t1.log;
 
+import com.github.t1.log.LogPoint.LazyLogPoint;
 import com.github.t1.log.LogPoint.NullLogPoint;
 import com.github.t1.log.LogPoint.StandardLogPoint;
 import com.github.t1.log.LogPoint.ThrowableLogPoint;
@@ -9,13 +10,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.AnnotatedElement;
-import java.lang.reflect.Field;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -28,7 +30,6 @@ import static java.lang.Character.toLowerCase;
 import static java.util.Collections.unmodifiableList;
 
 class LogPointBuilder {
-    private static final Pattern VAR = Pattern.compile("\\{(?<expression>[^}]*)}");
     private static final Pattern NUMERIC = Pattern.compile("(\\+|-|)\\d+");
 
     private final Method method;
@@ -39,6 +40,10 @@ class LogPointBuilder {
 
     private LogArgument throwableParameter;
     private List<Parameter> rawParams;
+    private List<LogArgument> messageArguments;
+    private RenderLimits limits;
+    /** The slots in the {@link ArgumentSnapshot} by parameter index and expression */
+    private final Map<String, Integer> argumentSlots = new HashMap<>();
 
     private int defaultIndex = 0;
 
@@ -52,23 +57,48 @@ class LogPointBuilder {
         if (logged == null)
             return new NullLogPoint(context);
 
+        this.limits = RenderLimits.global().with(loggedAnnotationOn(method).limits());
         this.rawParams = rawParams();
         this.throwableParameter = throwableParam();
+        this.messageArguments = buildMessageArguments();
 
         this.context //
             .logger(buildLogger()) //
             .level(resolveLevel()) //
             .fieldLogContexts(buildFieldLogContextVariables()) //
             .logArguments(buildLogArguments()) //
-            .messageFormat(parseMessage()) //
+            .logContextParameters(buildLogContextParameters()) //
+            .mdcLogArguments(buildMdcLogArguments()) //
+            .messageTemplate(buildMessageTemplate()) //
             .voidMethod(method.getReturnType() == void.class) //
-            .returnFormat(loggedAnnotationOn(method).returnFormat()) //
+            .timeUnit(loggedAnnotationOn(method).timeUnit()) //
+            .returnFormat(ReturnFormat.parse(loggedAnnotationOn(method).returnFormat(), timeUnit(), limits)) //
             .repeatController(RepeatController.createFor(logged.repeat())) //
+            .mdcCapacity(mdcCapacity()) //
+            .argumentSlots(argumentSlots.size()) //
         ;
+        prewarmConverters();
 
         if (throwableParameter != null)
             return new ThrowableLogPoint(context, throwableParameter);
-        return new StandardLogPoint(context);
+        if (logged.lazy())
+            return new LazyLogPoint(context);
+        LogPoint specialized = LogPointSpecializer.specialize(method, context);
+        return (specialized == null) ? new StandardLogPoint(context) : specialized;
+    }
+
+    /** The declared types are often also the runtime types, e.g. for <code>String</code> or <code>Long</code> */
+    private void prewarmConverters() {
+        for (Parameter parameter : rawParams)
+            converters().prewarm(parameter.type());
+        converters().prewarm(method.getReturnType());
+    }
+
+    /** The non-constant producers are only known at runtime, but the slots can grow, if necessary. */
+    private int mdcCapacity() {
+        int indentAndTime = 2;
+        return logContextVariables().constantSize() + fieldLogContexts().size() + logContextParameters().size()
+               + mdcLogArguments().size() + indentAndTime;
     }
 
     private List<Parameter> rawParams() {
@@ -127,41 +157,70 @@ class LogPointBuilder {
         return ((Class<?>) element).getEnclosingClass();
     }
 
-    private List<LogArgument> buildLogArguments() {
+    private List<LogArgument> buildMessageArguments() {
         final List<LogArgument> result = new ArrayList<>();
         if (defaultLogMessage()) {
             buildParamsFromRawParams(result);
         } else {
             buildParamsFromMessage(result);
         }
+        return unmodifiableList(result);
+    }
+
+    private List<LogArgument> buildLogArguments() {
+        final List<LogArgument> result = new ArrayList<>(messageArguments);
         if (logged.json().length > 0) {
             List<JsonLogDetail> details = Arrays.asList(logged.json());
-            result.add(new JsonLogArgument(details, result, converters(), logger(), level()));
+            result.add(new JsonLogArgument(details, result, logger(), level(), limits));
         }
         return Collections.unmodifiableList(result);
     }
 
-    private List<FieldLogVariableProducer> buildFieldLogContextVariables() {
-        List<FieldLogVariableProducer> result = new ArrayList<>();
-        for (Field field : method.getDeclaringClass().getDeclaredFields()) {
-            LogContext logContext = Annotations.on(field).getAnnotation(LogContext.class);
-            if (logContext == null)
-                continue;
-            result.add(new FieldLogVariableProducer(field, converters()));
+    private List<LogArgument> buildLogContextParameters() {
+        List<LogArgument> result = new ArrayList<>();
+        for (Parameter parameter : rawParams) {
+            if (parameter.isAnnotationPresent(LogContext.class) && !parameter.isAnnotationPresent(DontLog.class)) {
+                result.add(logContextParameter(parameter));
+            }
+        }
+        return unmodifiableList(result);
+    }
+
+    /** The last reference in the message, so e.g. <code>{customer.id}</code> puts the id; or the whole parameter */
+    private LogArgument logContextParameter(Parameter parameter) {
+        for (int i = messageArguments.size() - 1; i >= 0; i--) {
+            LogArgument argument = messageArguments.get(i);
+            if (argument instanceof ParameterLogArgument && ((ParameterLogArgument) argument).isFor(parameter))
+                return argument;
+        }
+        return parameterLogArgument(parameter, null);
+    }
+
+    /** The parameters are already in the {@link #buildLogContextParameters() log context parameters} */
+    private List<LogArgument> buildMdcLogArguments() {
+        List<LogArgument> result = new ArrayList<>();
+        for (LogArgument argument : logArguments()) {
+            if (!(argument instanceof ParameterLogArgument)) {
+                result.add(argument);
+            }
         }
-        return result;
+        return unmodifiableList(result);
+    }
+
+    private List<FieldLogVariableProducer> buildFieldLogContextVariables() {
+        return FieldLogVariableProducer.of(method.getDeclaringClass(), converters());
     }
 
     private void buildParamsFromRawParams(final List<LogArgument> result) {
         for (Parameter parameter : rawParams) {
             if (!parameter.isAnnotationPresent(DontLog.class)) {
-                result.add(new ParameterLogArgument(parameter, converters(), null));
+                result.add(parameterLogArgument(parameter, null));
             }
         }
     }
 
     private void buildParamsFromMessage(final List<LogArgument> result) {
-        Matcher matcher = VAR.matcher(logged.value());
+        Matcher matcher = MessageTemplate.VAR.matcher(logged.value());
         while (matcher.find()) {
             String expression = matcher.group("expression");
             result.add(logArgument(expression));
@@ -193,7 +252,13 @@ class LogPointBuilder {
     private LogArgument logParam(int index, String expression) {
         if (index < 0 || index >= rawParams.size())
             return new StaticLogArgument("error", "invalid log parameter index: " + index);
-        return new ParameterLogArgument(rawParams.get(index), converters(), expression);
+        return parameterLogArgument(rawParams.get(index), expression);
+    }
+
+    /** The same parameter and expression share the slot, so it's only evaluated once per invocation */
+    private ParameterLogArgument parameterLogArgument(Parameter parameter, String expression) {
+        Integer slot = argumentSlots.computeIfAbsent(parameter.index() + ":" + expression, key -> argumentSlots.size());
+        return new ParameterLogArgument(parameter, converters(), expression, slot, logged.lazy(), limits);
     }
 
     private boolean isNumeric(String expression) {
@@ -219,21 +284,31 @@ class LogPointBuilder {
         Parameter lastParam = rawParams.get(rawParams.size() - 1);
         if (!Throwable.class.isAssignableFrom(lastParam.type()))
             return null;
-        return new ParameterLogArgument(lastParam, converters(), null);
+        return parameterLogArgument(lastParam, null);
     }
 
     private boolean defaultLogMessage() {
         return CAMEL_CASE_METHOD_NAME.equals(logged.value());
     }
 
-    private String parseMessage() {
+    private MessageTemplate buildMessageTemplate() {
         if (defaultLogMessage()) {
-            return camelToSpaces(method.getName()) + messageParamPlaceholders();
+            List<LogArgument> arguments = defaultMessageArguments();
+            return MessageTemplate.parse(camelToSpaces(method.getName()) + " {}".repeat(arguments.size()), arguments)
+                .limits(limits);
         } else {
-            return stripPlaceholderBodies(logged.value());
+            MessageTemplate template = MessageTemplate.parse(logged.value(), messageArguments).limits(limits);
+            return (throwableParameter == null) ? template : template.keepThrowablePlaceholder();
         }
     }
 
+    /** The throwable parameter is not part of the default message, but logged as the throwable. */
+    private List<LogArgument> defaultMessageArguments() {
+        if (throwableParameter == null || rawParams.get(rawParams.size() - 1).isAnnotationPresent(DontLog.class))
+            return messageArguments;
+        return messageArguments.subList(0, messageArguments.size() - 1);
+    }
+
     private String camelToSpaces(String string) {
         StringBuilder out = new StringBuilder();
         for (Character c : string.toCharArray()) {
@@ -246,23 +321,4 @@ class LogPointBuilder {
         }
         return out.toString();
     }
-
-    private String messageParamPlaceholders() {
-        StringBuilder out = new StringBuilder();
-        int n = logArguments().size();
-        if (throwableParameter != null)
-            --n;
-        out.append(" {}".repeat(Math.max(0, n)));
-        return out.toString();
-    }
-
-    private String stripPlaceholderBodies(String message) {
-        StringBuilder out = new StringBuilder();
-        Matcher matcher = VAR.matcher(message);
-        while (matcher.find()) {
-            matcher.appendReplacement(out, "{}");
-        }
-        matcher.appendTail(out);
-        return out.toString();
-    }
 }
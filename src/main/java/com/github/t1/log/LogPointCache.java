@@ -0,0 +1,116 @@
+package com.github.t1.log;
+
+import jakarta.inject.Singleton;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * The {@link LogPoint}s of one container, so they don't leak into other containers in the same JVM, and they are
+ * gone with the container, e.g. on a redeployment.
+ * <p>
+ * The log points are stored per declaring class in a {@link ClassValue}, so they don't pin the classes (and their
+ * class loaders), and each log point is built exactly once, even when the first calls come concurrently.
+ * <p>
+ * It also registers all MDC keys the log points of this container may put, so a
+ * {@link LogContextSnapshot#cleared(String[]) cleared} log context can remove them.
+ */
+@Singleton
+class LogPointCache {
+    private final ClassValue<Map<Method, LogPoint>> byClass = new ClassValue<>() {
+        @Override protected Map<Method, LogPoint> computeValue(Class<?> type) {
+            synchronized (classes) {
+                classes.add(type);
+            }
+            return new ConcurrentHashMap<>();
+        }
+    };
+    /** Only to compute the {@link #size()} and to {@link #clear()}, as a {@link ClassValue} can't be iterated */
+    private final Set<Class<?>> classes = Collections.newSetFromMap(new WeakHashMap<>());
+
+    private final Set<String> mdcKeys = ConcurrentHashMap.newKeySet();
+    /** A copy of the {@link #mdcKeys}, reset when a new key is added */
+    private volatile String[] mdcKeyArray;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /** @return the cached log point or <code>null</code>; a <code>null</code> is not yet counted as a miss */
+    public LogPoint get(Method method) {
+        LogPoint logPoint = byClass.get(method.getDeclaringClass()).get(method);
+        if (logPoint != null)
+            hits.increment();
+        return logPoint;
+    }
+
+    /** Build the log point, if no other thread has done so already, while the others wait for it */
+    public LogPoint computeIfAbsent(Method method, Function<Method, LogPoint> builder) {
+        return byClass.get(method.getDeclaringClass()).computeIfAbsent(method, m -> {
+            misses.increment();
+            LogPoint logPoint = builder.apply(m);
+            logPoint.addMdcKeysTo(this::addMdcKey);
+            return logPoint;
+        });
+    }
+
+    /** Only the keys of non-constant producers come at runtime, and only when they change */
+    void addMdcKey(String key) {
+        if (key != null && mdcKeys.add(key))
+            mdcKeyArray = null;
+    }
+
+    /** All MDC keys the log points built so far may put */
+    String[] mdcKeys() {
+        String[] keys = mdcKeyArray;
+        if (keys == null)
+            mdcKeyArray = keys = mdcKeys.toArray(new String[0]);
+        return keys;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Class<?> type : classes())
+            size += byClass.get(type).size();
+        return size;
+    }
+
+    public long hits() {return hits.sum();}
+
+    public long misses() {return misses.sum();}
+
+    public double hitRate() {
+        long hits = hits();
+        long total = hits + misses();
+        return (total == 0) ? 0 : (double) hits / total;
+    }
+
+    public void clear() {
+        for (Class<?> type : classes())
+            byClass.remove(type);
+        synchronized (classes) {
+            classes.clear();
+        }
+        mdcKeys.clear();
+        mdcKeyArray = null;
+        hits.reset();
+        misses.reset();
+    }
+
+    private List<Class<?>> classes() {
+        synchronized (classes) {
+            return new ArrayList<>(classes);
+        }
+    }
+
+    @Override public String toString() {
+        return "LogPointCache[size=" + size() + ", hits=" + hits() + ", misses=" + misses() + "]";
+    }
+}
@@ -4,24 +4,35 @@ import lombok.*;
 import lombok.experimental.Accessors;
 import org.slf4j.Logger;
 
-import jakarta.enterprise.inject.Instance;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Data
 @Accessors(fluent = true)
 @RequiredArgsConstructor
 class LogPointContext {
-    private final Instance<LogContextVariable> logContextVariables;
+    private final LogContextVariables logContextVariables;
     private final Converters converters;
+    private final LogOptions options;
 
     private Logger logger;
     private LogLevel level;
-    private String messageFormat;
+    private MessageTemplate messageTemplate;
 
     private List<LogArgument> logArguments;
+    /** The arguments to put into the MDC, even when the level is disabled */
+    private List<LogArgument> logContextParameters;
+    /** The arguments to put into the MDC, only when the level is enabled */
+    private List<LogArgument> mdcLogArguments;
     private List<FieldLogVariableProducer> fieldLogContexts;
 
     private boolean voidMethod;
-    private String returnFormat;
+    private ReturnFormat returnFormat;
+    private TimeUnit timeUnit;
     private RepeatController repeatController;
+
+    /** The number of MDC keys an invocation is expected to put, so the slots can be preallocated. */
+    private int mdcCapacity;
+    /** The number of distinct parameter arguments, i.e. the size of the {@link ArgumentSnapshot} */
+    private int argumentSlots;
 }
@@ -0,0 +1,106 @@
+package com.github.t1.log;
+
+import jakarta.decorator.Decorator;
+import jakarta.enterprise.event.Observes;
+import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.spi.AfterDeploymentValidation;
+import jakarta.enterprise.inject.spi.AnnotatedMethod;
+import jakarta.enterprise.inject.spi.AnnotatedType;
+import jakarta.enterprise.inject.spi.BeanManager;
+import jakarta.enterprise.inject.spi.Extension;
+import jakarta.enterprise.inject.spi.ProcessManagedBean;
+import jakarta.interceptor.Interceptor;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Builds the {@link LogPoint}s of all managed beans at deployment time, so the first calls after a deployment don't
+ * have to. The intercepted methods are collected from the beans with <code>@Logged</code> on the type (directly or
+ * in a stereotype) or on the methods; the log points are then built on a fork-join pool. Failures are only logged, as
+ * they will show up again when the method is actually called. A {@link LinkageError}, e.g. for a type that can't be
+ * resolved at deployment time, is logged only at <code>DEBUG</code>, and the log point is built lazily, as before.
+ */
+@Slf4j
+public class LogPointPrecompiler implements Extension {
+    private final Set<Method> methods = ConcurrentHashMap.newKeySet();
+
+    <T> void collect(@Observes ProcessManagedBean<T> bean, BeanManager beanManager) {
+        AnnotatedType<T> type = bean.getAnnotatedBeanClass();
+        if (type.isAnnotationPresent(Interceptor.class) || type.isAnnotationPresent(Decorator.class))
+            return;
+        boolean loggedType = isLogged(type.getAnnotations(), beanManager);
+        for (AnnotatedMethod<? super T> method : type.getMethods())
+            if (isInterceptable(method.getJavaMember()) && (loggedType || method.isAnnotationPresent(Logged.class)))
+                methods.add(method.getJavaMember());
+    }
+
+    /** The <code>@Logged</code> binding may also come from a (nested) stereotype */
+    private boolean isLogged(Set<Annotation> annotations, BeanManager beanManager) {
+        for (Annotation annotation : annotations) {
+            if (annotation instanceof Logged)
+                return true;
+            Class<? extends Annotation> annotationType = annotation.annotationType();
+            if (beanManager.isStereotype(annotationType)
+                && isLogged(beanManager.getStereotypeDefinition(annotationType), beanManager))
+                return true;
+        }
+        return false;
+    }
+
+    private boolean isInterceptable(Method method) {
+        int modifiers = method.getModifiers();
+        return !Modifier.isStatic(modifiers) && !Modifier.isPrivate(modifiers) && !method.isSynthetic()
+               && method.getDeclaringClass() != Object.class;
+    }
+
+    void precompile(@Observes AfterDeploymentValidation event, BeanManager beanManager) {
+        Instance<Object> beans = beanManager.createInstance();
+        Instance<LogPointCache> cache = beans.select(LogPointCache.class);
+        if (!cache.isResolvable()) {
+            log.debug("no log point cache; skip precompiling");
+            return;
+        }
+        LogPointCache logPoints = cache.get();
+        LogContextVariables variables = LogContextVariables.of(beans.select(LogContextVariable.class), beanManager,
+            logPoints::addMdcKey);
+        precompile(methods, logPoints, variables, beans.select(Converters.class).get());
+        methods.clear();
+    }
+
+    static void precompile(Set<Method> methods, LogPointCache cache, LogContextVariables variables,
+        Converters converters) {
+        long t0 = System.nanoTime();
+        AtomicInteger count = new AtomicInteger();
+        ForkJoinPool pool = new ForkJoinPool();
+        try {
+            pool.submit(() -> methods.parallelStream().forEach(method -> {
+                try {
+                    cache.computeIfAbsent(method, m -> LoggingInterceptor.buildLogPoint(m, variables, converters,
+                        LogOptions.global()));
+                    count.incrementAndGet();
+                } catch (RuntimeException e) {
+                    log.warn("can't precompile log point for {}", method, e);
+                } catch (LinkageError e) {
+                    log.debug("can't link log point for {}; build it when it's called", method, e);
+                }
+            })).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            log.warn("failed to precompile log points", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        log.info("precompiled {} log points in {} ms", count, NANOSECONDS.toMillis(System.nanoTime() - t0));
+    }
+}
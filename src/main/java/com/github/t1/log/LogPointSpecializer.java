@@ -0,0 +1,202 @@
+package com.github.t1.log;
+
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.CtConstructor;
+import javassist.CtField;
+import javassist.CtNewConstructor;
+import javassist.CtNewMethod;
+import javassist.LoaderClassPath;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates a {@link LogPoint} class for one logged method, with the level, the message literals, and the arguments
+ * hard-wired into straight-line code, instead of the loops over the argument lists and the calls through the
+ * {@link LogLevel}. Every generated class has its own call sites, so the JIT can inline them for this method, and as
+ * it's a hidden class, its final fields are trusted to be constants. Hidden classes are unloaded with their log point.
+ * <p>
+ * The message is rendered with the same buffer and length estimate as the {@link MessageTemplate} of a
+ * {@link LogPoint.StandardLogPoint}, so both paths produce the same messages.
+ * <p>
+ * This is optional; enable it with the system property <code>com.github.t1.log.specialize=true</code>. Only the
+ * standard log points are generated; if that fails for any reason, the builder falls back to the normal log point.
+ */
+@Slf4j
+final class LogPointSpecializer {
+    static final boolean ENABLED = Boolean.getBoolean("com.github.t1.log.specialize");
+
+    private static final AtomicInteger COUNT = new AtomicInteger();
+
+    private LogPointSpecializer() {}
+
+    /** @return the generated log point or <code>null</code>, if it's not enabled or not possible */
+    static LogPoint specialize(Method method, LogPointContext context) {
+        if (!context.options().isSpecialized() || levelMethod(context.level()) == null)
+            return null;
+        try {
+            return new Generator(context).generate();
+        } catch (Exception | LinkageError e) {
+            log.debug("can't generate log point for {}; fall back to the standard log point", method, e);
+            return null;
+        }
+    }
+
+    /** The name of the slf4j methods for the level, e.g. <code>debug</code> */
+    private static String levelMethod(LogLevel level) {
+        switch (level) {
+            case ALL:
+            case TRACE:
+                return "trace";
+            case DEBUG:
+                return "debug";
+            case INFO:
+                return "info";
+            case WARN:
+                return "warn";
+            case ERROR:
+                return "error";
+            default:
+                return null;
+        }
+    }
+
+    private static class Generator {
+        private final LogPointContext context;
+        private final String level;
+        private final String[] literals;
+        private final LogArgument[] arguments;
+        private final List<LogArgument> logContextParameters;
+        private final List<LogArgument> mdcLogArguments;
+
+        Generator(LogPointContext context) {
+            this.context = context;
+            this.level = levelMethod(context.level());
+            this.literals = context.messageTemplate().literals();
+            this.arguments = context.messageTemplate().arguments();
+            this.logContextParameters = context.logContextParameters();
+            this.mdcLogArguments = context.mdcLogArguments();
+        }
+
+        LogPoint generate() throws Exception {
+            ClassPool pool = new ClassPool(true);
+            pool.appendClassPath(new LoaderClassPath(LogPoint.class.getClassLoader()));
+            pool.importPackage("com.github.t1.log");
+            pool.importPackage("jakarta.interceptor");
+            pool.importPackage("org.slf4j");
+
+            CtClass type = pool.makeClass(LogPoint.class.getPackageName() + ".GeneratedLogPoint"
+                                          + COUNT.incrementAndGet());
+            type.setSuperclass(pool.get(LogPoint.class.getName()));
+            type.setModifiers(javassist.Modifier.FINAL);
+            addFields(type);
+            type.addConstructor(constructor(type));
+            type.addMethod(CtNewMethod.make(isEnabled(), type));
+            type.addMethod(CtNewMethod.make(unrolled("addParameterLogContexts", "c", logContextParameters), type));
+            type.addMethod(CtNewMethod.make(unrolled("addMdcLogArguments", "m", mdcLogArguments), type));
+            type.addMethod(CtNewMethod.make(logCallDo(), type));
+            byte[] bytecode = type.toBytecode();
+            type.detach();
+
+            Class<?> hiddenClass = MethodHandles.lookup().defineHiddenClass(bytecode, true).lookupClass();
+            return (LogPoint) hiddenClass.getConstructor(LogPointContext.class, Object[].class)
+                .newInstance(context, values());
+        }
+
+        private void addFields(CtClass type) throws Exception {
+            addField(type, "Logger", "logger");
+            addField(type, "MessageTemplate", "template");
+            addField(type, "RenderLimits", "limits");
+            for (int i = 0; i < literals.length; i++)
+                addField(type, "String", "l" + i);
+            for (int i = 0; i < arguments.length; i++)
+                addField(type, "LogArgument", "a" + i);
+            for (int i = 0; i < logContextParameters.size(); i++)
+                addField(type, "LogArgument", "c" + i);
+            for (int i = 0; i < mdcLogArguments.size(); i++)
+                addField(type, "LogArgument", "m" + i);
+        }
+
+        private void addField(CtClass type, String fieldType, String name) throws Exception {
+            type.addField(CtField.make("private final " + fieldType + " " + name + ";", type));
+        }
+
+        /** The values of the fields in the same order, as one array, so the constructor has a fixed signature */
+        private Object[] values() {
+            Object[] values = new Object[3 + literals.length + arguments.length
+                                         + logContextParameters.size() + mdcLogArguments.size()];
+            int i = 0;
+            values[i++] = context.logger();
+            values[i++] = context.messageTemplate();
+            values[i++] = context.messageTemplate().limits();
+            for (String literal : literals)
+                values[i++] = literal;
+            for (LogArgument argument : arguments)
+                values[i++] = argument;
+            for (LogArgument argument : logContextParameters)
+                values[i++] = argument;
+            for (LogArgument argument : mdcLogArguments)
+                values[i++] = argument;
+            return values;
+        }
+
+        private CtConstructor constructor(CtClass type) throws Exception {
+            StringBuilder body = new StringBuilder();
+            body.append("public ").append(type.getSimpleName()).append("(LogPointContext context, Object[] values) {")
+                .append("super(context);")
+                .append("this.logger = (Logger) values[0];")
+                .append("this.template = (MessageTemplate) values[1];")
+                .append("this.limits = (RenderLimits) values[2];");
+            int i = 3;
+            for (int j = 0; j < literals.length; j++)
+                body.append("this.l").append(j).append(" = (String) values[").append(i++).append("];");
+            for (int j = 0; j < arguments.length; j++)
+                body.append("this.a").append(j).append(" = (LogArgument) values[").append(i++).append("];");
+            for (int j = 0; j < logContextParameters.size(); j++)
+                body.append("this.c").append(j).append(" = (LogArgument) values[").append(i++).append("];");
+            for (int j = 0; j < mdcLogArguments.size(); j++)
+                body.append("this.m").append(j).append(" = (LogArgument) values[").append(i++).append("];");
+            return CtNewConstructor.make(body.append("}").toString(), type);
+        }
+
+        private String isEnabled() {
+            String body = (context.level() == LogLevel.ALL) ? "true"
+                : "logger.is" + Character.toUpperCase(level.charAt(0)) + level.substring(1) + "Enabled()";
+            return "protected boolean isEnabled() { return " + body + "; }";
+        }
+
+        private String unrolled(String methodName, String prefix, List<LogArgument> list) {
+            StringBuilder out = new StringBuilder("protected void ").append(methodName)
+                .append("(RestorableMdc mdc, InvocationContext context) {");
+            for (int i = 0; i < list.size(); i++)
+                out.append(prefix).append(i).append(".set(mdc, context);");
+            return out.append("}").toString();
+        }
+
+        private String logCallDo() {
+            StringBuilder out = new StringBuilder("protected void logCallDo(InvocationContext context) {")
+                .append("StringBuilder out = template.acquire();")
+                .append("String message;")
+                .append("try {");
+            for (int i = 0; i < arguments.length; i++) {
+                appendLiteral(out, i);
+                out.append("ValueRenderer.append(out, a").append(i).append(".value(context), limits);");
+            }
+            appendLiteral(out, arguments.length);
+            return out.append("} finally {")
+                .append("message = template.release(out);")
+                .append("}")
+                .append("logger.").append(level).append("(message);")
+                .append("}").toString();
+        }
+
+        private void appendLiteral(StringBuilder out, int i) {
+            if (!literals[i].isEmpty())
+                out.append("out.append(l").append(i).append(");");
+        }
+    }
+}
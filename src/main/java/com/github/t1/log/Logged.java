@@ -5,6 +5,7 @@ import jakarta.interceptor.InterceptorBinding;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.Target;
+import java.util.concurrent.TimeUnit;
 
 import static com.github.t1.log.LogLevel._DERIVED_;
 import static java.lang.annotation.ElementType.ANNOTATION_TYPE;
@@ -12,6 +13,7 @@ import static java.lang.annotation.ElementType.METHOD;
 import static java.lang.annotation.ElementType.PACKAGE;
 import static java.lang.annotation.ElementType.TYPE;
 import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
 
 /**
  * Logs the method invocation (the name of the method and the parameter values) and eventually the return value resp.
@@ -77,7 +79,30 @@ public @interface Logged {
 
     /**
      * The format for the message logged when the invocation returns.
-     * Supported fields: <code>returnValue</code> and <code>time</code>
+     * Supported fields: <code>returnValue</code> and <code>time</code> (in the {@link #timeUnit()}),
+     * <code>timeMicros</code>, and <code>timeNanos</code>
      */
     @Nonbinding String returnFormat() default "return {returnValue} [time:{time}]";
+
+    /**
+     * The unit of the <code>time</code> in the {@link #returnFormat()}, the failure message, and the MDC variable
+     * <code>time</code>.
+     */
+    @Nonbinding TimeUnit timeUnit() default MILLISECONDS;
+
+    /**
+     * The limits for rendering each parameter and the return value into the log messages, so huge values don't get
+     * logged completely.
+     */
+    @Nonbinding LogLimits limits() default @LogLimits;
+
+    /**
+     * Pass the parameters to slf4j as lazy arguments, so they are only evaluated, converted, and rendered, when the
+     * logging backend actually formats the message, and not when, e.g., a filter drops it. The parameters may then be
+     * rendered after the method was called (e.g. by an asynchronous backend), so any changes the method made to them
+     * may show up in the message. This doesn't apply to messages with a throwable parameter.
+     * <p>
+     * Only in this mode, <code>Supplier</code> parameters are logged as the value they supply.
+     */
+    @Nonbinding boolean lazy() default false;
 }
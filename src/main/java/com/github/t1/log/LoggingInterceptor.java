@@ -5,11 +5,11 @@ import com.github.t1.stereotypes.Annotations;
 import jakarta.annotation.Priority;
 import jakarta.enterprise.context.Dependent;
 import jakarta.enterprise.inject.Instance;
+import jakarta.enterprise.inject.spi.BeanManager;
 import jakarta.inject.Inject;
 import jakarta.interceptor.*;
 import java.lang.reflect.Method;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 import static jakarta.interceptor.Interceptor.Priority.*;
 
@@ -18,12 +18,39 @@ import static jakarta.interceptor.Interceptor.Priority.*;
 @Interceptor
 @Priority(LIBRARY_BEFORE)
 public class LoggingInterceptor {
+    private final Supplier<LogContextVariables> variables;
+    private final Converters converters;
+    private final LogPointCache cache;
+    private final LogOptions options;
+
     @Inject
-    private Instance<LogContextVariable> variables;
-    @Inject
-    private Converters converters;
+    LoggingInterceptor(Instance<LogContextVariable> variables, BeanManager beanManager, Converters converters,
+        LogPointCache cache) {
+        this(() -> LogContextVariables.of(variables, beanManager, cache::addMdcKey), converters, cache,
+            LogOptions.global());
+    }
+
+    /** Without a container, e.g. for tests and benchmarks */
+    LoggingInterceptor(Iterable<LogContextVariable> variables, Converters converters) {
+        this(variables, converters, LogOptions.global());
+    }
+
+    LoggingInterceptor(Iterable<LogContextVariable> variables, Converters converters, LogOptions options) {
+        this(variables, converters, new LogPointCache(), options);
+    }
+
+    LoggingInterceptor(Iterable<LogContextVariable> variables, Converters converters, LogPointCache cache,
+        LogOptions options) {
+        this(() -> LogContextVariables.of(variables), converters, cache, options);
+    }
 
-    static final Map<Method, LogPoint> CACHE = new ConcurrentHashMap<>();
+    private LoggingInterceptor(Supplier<LogContextVariables> variables, Converters converters, LogPointCache cache,
+        LogOptions options) {
+        this.variables = variables;
+        this.converters = converters;
+        this.cache = cache;
+        this.options = options;
+    }
 
     @AroundInvoke
     Object aroundInvoke(InvocationContext context) throws Exception {
@@ -37,34 +64,48 @@ public class LoggingInterceptor {
 
     private Object around(InvocationContext context) throws Exception {
         LogPoint logPoint = logPoint(context.getMethod());
-
-        logPoint.logCall(context);
-
-        long t0 = System.currentTimeMillis();
+        LogContextSnapshot.Scope inherited = options.isScoped() ? ScopedLogContext.inherit() : null;
+        RestorableMdc mdc = logPoint.openMdc();
         try {
-            Object result = context.proceed();
-            logPoint.logResult(result, System.currentTimeMillis() - t0);
+            logPoint.logCall(mdc, context);
+
+            NanoClock clock = options.getClock();
+            long t0 = clock.nanoTime();
+            Object result;
+            try {
+                result = options.isScoped() ? ScopedLogContext.proceed(context, mdc) : context.proceed();
+            } catch (Exception e) {
+                logPoint.logException(e, clock.nanoTime() - t0);
+                throw e;
+            }
+            logPoint.logResult(mdc, result, clock.nanoTime() - t0);
             return result;
-        } catch (Exception e) {
-            logPoint.logException(e, System.currentTimeMillis() - t0);
-            throw e;
         } finally {
-            logPoint.done();
+            mdc.restore();
+            if (inherited != null)
+                inherited.close();
         }
     }
 
     private LogPoint logPoint(Method method) {
-        LogPoint logPoint = CACHE.get(method);
-        if (logPoint == null) {
-            try {
-                Logged logged = Annotations.on(method).getAnnotation(Logged.class);
-                LogPointContext context = new LogPointContext(variables, converters);
-                logPoint = new LogPointBuilder(method, logged, context).build();
-            } catch (RuntimeException e) {
-                throw new RuntimeException("can't build log point for " + method, e);
-            }
-            CACHE.put(method, logPoint);
-        }
+        LogPoint logPoint = cache.get(method);
+        if (logPoint == null)
+            logPoint = cache.computeIfAbsent(method, this::build);
         return logPoint;
     }
+
+    private LogPoint build(Method method) {
+        return buildLogPoint(method, variables.get(), converters, options);
+    }
+
+    static LogPoint buildLogPoint(Method method, LogContextVariables variables, Converters converters,
+        LogOptions options) {
+        try {
+            Logged logged = Annotations.on(method).getAnnotation(Logged.class);
+            LogPointContext context = new LogPointContext(variables, converters, options);
+            return new LogPointBuilder(method, logged, context).build();
+        } catch (RuntimeException e) {
+            throw new RuntimeException("can't build log point for " + method, e);
+        }
+    }
 }
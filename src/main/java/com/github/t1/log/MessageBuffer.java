@@ -0,0 +1,40 @@
+package com.github.t1.log;
+
+/**
+ * A reusable, per-thread {@link StringBuilder} to render log messages into. If the buffer of the current thread is
+ * already in use, e.g. when a <code>toString</code> logs something itself, a fresh builder is used instead.
+ */
+final class MessageBuffer {
+    private static final int INITIAL_CAPACITY = 256;
+    /** Don't keep huge buffers around after logging an exceptionally long message. */
+    private static final int MAX_RETAINED_CAPACITY = 16 * 1024;
+
+    private static final ThreadLocal<MessageBuffer> BUFFER = ThreadLocal.withInitial(MessageBuffer::new);
+
+    static StringBuilder acquire(int expectedLength) {
+        MessageBuffer buffer = BUFFER.get();
+        if (buffer.inUse)
+            return new StringBuilder(expectedLength);
+        buffer.inUse = true;
+        buffer.out.setLength(0);
+        buffer.out.ensureCapacity(expectedLength);
+        return buffer.out;
+    }
+
+    /** Returns the message and releases the buffer, if it was {@link #acquire(int) acquired}. */
+    static String release(StringBuilder out) {
+        String message = out.toString();
+        MessageBuffer buffer = BUFFER.get();
+        if (buffer.out == out) {
+            if (out.capacity() > MAX_RETAINED_CAPACITY)
+                buffer.out = new StringBuilder(INITIAL_CAPACITY);
+            buffer.inUse = false;
+        }
+        return message;
+    }
+
+    private StringBuilder out = new StringBuilder(INITIAL_CAPACITY);
+    private boolean inUse;
+
+    private MessageBuffer() {}
+}
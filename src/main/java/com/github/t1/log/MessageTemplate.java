@@ -0,0 +1,170 @@
+package com.github.t1.log;
+
+import jakarta.interceptor.InvocationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * The message of a {@link LogPoint}, compiled once into the literal parts and the {@link LogArgument}s in between,
+ * so rendering it is a single pass into a {@link MessageBuffer}.
+ */
+class MessageTemplate {
+    static final Pattern VAR = Pattern.compile("\\{(?<expression>[^}]*)}");
+    private static final String PLACEHOLDER = "{}";
+
+    /**
+     * @param pattern   the message with one <code>{...}</code> placeholder for every argument
+     * @param arguments the arguments to render into the placeholders
+     */
+    static MessageTemplate parse(String pattern, List<LogArgument> arguments) {
+        List<String> literals = new ArrayList<>();
+        Matcher matcher = VAR.matcher(pattern);
+        int start = 0;
+        while (matcher.find()) {
+            literals.add(pattern.substring(start, matcher.start()));
+            start = matcher.end();
+        }
+        literals.add(pattern.substring(start));
+        if (literals.size() != arguments.size() + 1)
+            throw new IllegalArgumentException("expected " + arguments.size() + " placeholders in [" + pattern + "]");
+        return new MessageTemplate(literals.toArray(new String[0]), arguments.toArray(new LogArgument[0]));
+    }
+
+    /**
+     * An argument for slf4j that is only evaluated, converted, and rendered, when the logging backend actually formats
+     * the message, i.e. not when a filter drops it. A value that the {@link ArgumentSnapshot} already evaluated, e.g.
+     * for a <code>@LogContext</code> parameter, is reused; others are evaluated on the original invocation context, as
+     * the snapshot may already be reused by then.
+     */
+    private static class LazyArgument {
+        private final LogArgument argument;
+        private final InvocationContext context;
+        private final Object evaluated;
+        private final RenderLimits limits;
+        private String string;
+
+        LazyArgument(LogArgument argument, InvocationContext context, Object evaluated, RenderLimits limits) {
+            this.argument = argument;
+            this.context = context;
+            this.evaluated = evaluated;
+            this.limits = limits;
+        }
+
+        @Override public String toString() {
+            if (string == null) {
+                Object value = (evaluated == ArgumentSnapshot.UNSET) ? argument.value(context) : evaluated;
+                StringBuilder out = new StringBuilder();
+                ValueRenderer.append(out, value, limits);
+                string = out.toString();
+            }
+            return string;
+        }
+    }
+
+    private final String[] literals;
+    private final LogArgument[] arguments;
+    private boolean keepThrowablePlaceholder;
+    private RenderLimits limits = RenderLimits.global();
+    private int expectedLength;
+    private String format;
+
+    private MessageTemplate(String[] literals, LogArgument[] arguments) {
+        this.literals = literals;
+        this.arguments = arguments;
+        for (String literal : literals)
+            this.expectedLength += literal.length();
+    }
+
+    /**
+     * If the last argument is a {@link Throwable}, slf4j passes it on as the throwable of the log event and
+     * doesn't replace its placeholder; we do the same.
+     */
+    MessageTemplate keepThrowablePlaceholder() {
+        this.keepThrowablePlaceholder = true;
+        return this;
+    }
+
+    MessageTemplate limits(RenderLimits limits) {
+        this.limits = limits;
+        return this;
+    }
+
+    // for the LogPointSpecializer
+
+    String[] literals() {return literals;}
+
+    LogArgument[] arguments() {return arguments;}
+
+    RenderLimits limits() {return limits;}
+
+    public boolean isEmpty() {
+        return arguments.length == 0 && literals[0].isEmpty();
+    }
+
+    /** The message as an slf4j format, with <code>{}</code> placeholders for the {@link #lazyArguments} */
+    public String format() {
+        if (format == null) {
+            StringBuilder out = new StringBuilder();
+            for (int i = 0; i < arguments.length; i++) {
+                out.append(literals[i]);
+                if (literals[i].endsWith("\\")) // would escape the placeholder
+                    out.append('\\');
+                out.append(PLACEHOLDER);
+            }
+            format = out.append(literals[arguments.length]).toString();
+        }
+        return format;
+    }
+
+    public Object[] lazyArguments(InvocationContext context) {
+        ArgumentSnapshot snapshot = (context instanceof ArgumentSnapshot) ? (ArgumentSnapshot) context : null;
+        InvocationContext invocation = (snapshot == null) ? context : snapshot.invocation();
+        Object[] lazyArguments = new Object[arguments.length];
+        for (int i = 0; i < arguments.length; i++)
+            lazyArguments[i] = new LazyArgument(arguments[i], invocation, evaluated(arguments[i], snapshot), limits);
+        return lazyArguments;
+    }
+
+    private static Object evaluated(LogArgument argument, ArgumentSnapshot snapshot) {
+        if (snapshot == null || !(argument instanceof ParameterLogArgument))
+            return ArgumentSnapshot.UNSET;
+        return ((ParameterLogArgument) argument).evaluated(snapshot);
+    }
+
+    public String render(InvocationContext context) {
+        StringBuilder out = acquire();
+        String message;
+        try {
+            int last = arguments.length - 1;
+            for (int i = 0; i <= last; i++) {
+                out.append(literals[i]);
+                Object value = arguments[i].value(context);
+                if (keepThrowablePlaceholder && i == last && value instanceof Throwable)
+                    out.append(PLACEHOLDER);
+                else
+                    ValueRenderer.append(out, value, limits);
+            }
+            out.append(literals[arguments.length]);
+        } finally {
+            message = release(out);
+        }
+        return message;
+    }
+
+    /** A buffer for rendering this message, presized to the longest message so far */
+    StringBuilder acquire() {
+        return MessageBuffer.acquire(expectedLength);
+    }
+
+    /** The rendered message; the generated log points render with the same buffer and the same estimate */
+    String release(StringBuilder out) {
+        String message = MessageBuffer.release(out);
+        // benign race: this is only a hint for presizing the buffer
+        if (message.length() > expectedLength)
+            expectedLength = message.length();
+        return message;
+    }
+}
@@ -0,0 +1,13 @@
+package com.github.t1.log;
+
+/**
+ * A monotonic source of nanoseconds to time the logged invocations, only to be replaced in tests.
+ *
+ * @see System#nanoTime()
+ */
+@FunctionalInterface
+interface NanoClock {
+    NanoClock SYSTEM = System::nanoTime;
+
+    long nanoTime();
+}
@@ -1,13 +1,5 @@
 package com.github.t1.log;
 
-import javassist.ClassPool;
-import javassist.CtClass;
-import javassist.CtMethod;
-import javassist.LoaderClassPath;
-import javassist.Modifier;
-import javassist.NotFoundException;
-import javassist.bytecode.CodeAttribute;
-import javassist.bytecode.LocalVariableAttribute;
 import lombok.extern.slf4j.Slf4j;
 
 import java.lang.annotation.Annotation;
@@ -84,50 +76,8 @@ class Parameter {
     }
 
     private String getDebugInfoParameterName() {
-        try {
-            log.debug("try to get debug info");
-            LocalVariableAttribute localVariables = getLocalVariableTable(method);
-            if (localVariables == null)
-                return null;
-            String name = localVariables.variableName(index + thisOffset(method));
-            log.debug("got debug info: {}", name);
-            return name;
-        } catch (NotFoundException e) {
-            log.debug("can't load debug info for parameter", e);
-            return null;
-        }
-    }
-
-    private static LocalVariableAttribute getLocalVariableTable(Method method) throws NotFoundException {
-        ClassPool classPool = new ClassPool(true);
-        classPool.insertClassPath(new LoaderClassPath(method.getDeclaringClass().getClassLoader()));
-        CtClass ctClass = classPool.get(method.getDeclaringClass().getName());
-
-        CtMethod ctMethod = ctClass.getDeclaredMethod(method.getName(), classPool.get(classNames(method)));
-        CodeAttribute code = (CodeAttribute) ctMethod.getMethodInfo().getAttribute("Code");
-        if (code == null) {
-            if (!method.getDeclaringClass().isInterface())
-                log.debug("no debug information available for {}", method);
-            return null;
-        }
-        return (LocalVariableAttribute) code.getAttribute("LocalVariableTable");
-    }
-
-    private static String[] classNames(Method method) {
-        String[] args = new String[method.getParameterTypes().length];
-        int i = 0;
-        for (Class<?> paramType : method.getParameterTypes()) {
-            args[i++] = paramType.getName();
-        }
-        return args;
-    }
-
-    /** if the method is not static, the first local variable is "this" */
-    private static int thisOffset(Method method) {
-        return isStatic(method) ? 0 : 1;
-    }
-
-    private static boolean isStatic(Method method) {
-        return Modifier.isStatic(method.getModifiers());
+        String name = ParameterNames.of(method, index);
+        log.debug("got debug info: {}", name);
+        return name;
     }
 }
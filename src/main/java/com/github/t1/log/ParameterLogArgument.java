@@ -4,28 +4,48 @@ import static com.github.t1.log.LogContext.*;
 
 import jakarta.interceptor.InvocationContext;
 
+import java.util.function.Supplier;
+
 /** This is the normal case, reading the value from the method parameter. */
 class ParameterLogArgument extends ExpressionLogArgument {
     private final String logContextVariableName;
     private final Parameter parameter;
     private final Converters converters;
+    /** The index in the {@link ArgumentSnapshot} */
+    private final int slot;
+    /** Only in lazy mode, a <code>Supplier</code> is logged as the value it supplies */
+    private final boolean supplier;
+    private final RenderLimits limits;
 
-    ParameterLogArgument(Parameter parameter, Converters converters, String expression) {
+    ParameterLogArgument(Parameter parameter, Converters converters, String expression, int slot, boolean lazy,
+        RenderLimits limits) {
         super(expression);
 
         this.parameter = parameter;
         this.converters = converters;
+        this.slot = slot;
+        this.supplier = lazy && Supplier.class.isAssignableFrom(parameter.type());
+        this.limits = limits;
 
-        this.logContextVariableName = logContextVariableName();
+        this.logContextVariableName = resolveLogContextVariableName();
     }
 
-    private String logContextVariableName() {
+    private String resolveLogContextVariableName() {
         if (!parameter.isAnnotationPresent(LogContext.class))
             return null;
         String value = parameter.getAnnotation(LogContext.class).value();
         return (VARIABLE_NAME.equals(value)) ? parameter.getName() : value;
     }
 
+    /** The name of the MDC variable, if it's a <code>@LogContext</code> parameter, or <code>null</code> */
+    String logContextVariableName() {
+        return logContextVariableName;
+    }
+
+    boolean isFor(Parameter parameter) {
+        return this.parameter.index() == parameter.index();
+    }
+
     @Override
     public String name() {
         return parameter.getName();
@@ -33,18 +53,54 @@ class ParameterLogArgument extends ExpressionLogArgument {
 
     @Override
     public Object value(InvocationContext context) {
+        if (context instanceof ArgumentSnapshot)
+            return ((ArgumentSnapshot) context).value(slot, this);
+        return evaluate(context);
+    }
+
+    /** The value the snapshot already evaluated, or {@link ArgumentSnapshot#UNSET} */
+    Object evaluated(ArgumentSnapshot snapshot) {
+        return snapshot.evaluated(slot);
+    }
+
+    Object evaluate(InvocationContext context) {
         Object object = context.getParameters()[parameter.index()];
+        if (supplier && object != null)
+            object = supplied((Supplier<?>) object);
         object = evaluateExpressionOn(object);
         return converters.convert(object);
     }
 
+    /** A <code>Supplier</code> parameter is logged as the value it supplies */
+    private Object supplied(Supplier<?> supplier) {
+        try {
+            return supplier.get();
+        } catch (RuntimeException e) {
+            return "can't get supplied value";
+        }
+    }
+
     @Override
     public void set(RestorableMdc mdc, InvocationContext context) {
         if (logContextVariableName != null) {
             Object value = value(context);
             if (value != null) {
-                mdc.put(logContextVariableName, value.toString());
+                mdc.put(logContextVariableName, mdcValue(value));
             }
         }
     }
+
+    /** Limited like in the message; a short string is put as it is */
+    private String mdcValue(Object value) {
+        if (value instanceof String && ((String) value).length() <= limits.getMaxLength())
+            return (String) value;
+        StringBuilder out = MessageBuffer.acquire(64);
+        String string;
+        try {
+            ValueRenderer.append(out, value, limits);
+        } finally {
+            string = MessageBuffer.release(out);
+        }
+        return string;
+    }
 }
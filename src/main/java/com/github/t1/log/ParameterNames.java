@@ -0,0 +1,119 @@
+package com.github.t1.log;
+
+import javassist.ClassClassPath;
+import javassist.ClassPool;
+import javassist.CtClass;
+import javassist.NotFoundException;
+import javassist.bytecode.AccessFlag;
+import javassist.bytecode.CodeAttribute;
+import javassist.bytecode.Descriptor;
+import javassist.bytecode.LocalVariableAttribute;
+import javassist.bytecode.MethodInfo;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The parameter names from the debug information (the local variable tables), for classes compiled without the
+ * <code>-parameters</code> option. The class file is read only once for all methods, with a class pool that is
+ * dropped right away; the names are cached per class in a {@link ClassValue}, so they don't pin the class.
+ */
+@Slf4j
+class ParameterNames {
+    private static final Map<String, String[]> NONE = Map.of();
+
+    private static final ClassValue<Map<String, String[]>> CACHE = new ClassValue<>() {
+        @Override protected Map<String, String[]> computeValue(Class<?> type) {
+            return load(type);
+        }
+    };
+
+    /** @return the name of the parameter or <code>null</code>, if there is no debug information */
+    static String of(Method method, int index) {
+        String[] names = CACHE.get(method.getDeclaringClass()).get(method.getName() + descriptor(method));
+        return (names == null) ? null : names[index];
+    }
+
+    private static Map<String, String[]> load(Class<?> type) {
+        log.debug("load debug info for {}", type);
+        ClassPool classPool = new ClassPool(false);
+        classPool.insertClassPath(new ClassClassPath(type));
+        try {
+            CtClass ctClass = classPool.get(type.getName());
+            Map<String, String[]> result = new HashMap<>();
+            for (MethodInfo methodInfo : ctClass.getClassFile().getMethods()) {
+                String[] names = names(methodInfo);
+                if (names != null)
+                    result.put(methodInfo.getName() + methodInfo.getDescriptor(), names);
+            }
+            ctClass.detach();
+            return result;
+        } catch (NotFoundException | RuntimeException e) {
+            log.debug("can't load debug info for {}", type, e);
+            return NONE;
+        }
+    }
+
+    private static String[] names(MethodInfo methodInfo) {
+        CodeAttribute code = methodInfo.getCodeAttribute();
+        if (code == null) // abstract or native
+            return null;
+        LocalVariableAttribute variables = (LocalVariableAttribute) code.getAttribute(LocalVariableAttribute.tag);
+        if (variables == null)
+            return null;
+        String descriptor = methodInfo.getDescriptor();
+        boolean isStatic = (methodInfo.getAccessFlags() & AccessFlag.STATIC) != 0;
+        int[] slots = slots(descriptor, isStatic);
+        String[] names = new String[slots.length];
+        for (int i = 0; i < variables.tableLength(); i++) {
+            if (variables.startPc(i) != 0)
+                continue;
+            for (int p = 0; p < slots.length; p++)
+                if (variables.index(i) == slots[p])
+                    names[p] = variables.variableName(i);
+        }
+        for (String name : names)
+            if (name == null)
+                return null;
+        return names;
+    }
+
+    /** The local variable slots of the parameters; <code>long</code> and <code>double</code> take two */
+    private static int[] slots(String descriptor, boolean isStatic) {
+        int[] slots = new int[Descriptor.numOfParameters(descriptor)];
+        int slot = isStatic ? 0 : 1; // if the method is not static, the first local variable is "this"
+        int i = 1; // skip '('
+        for (int p = 0; p < slots.length; p++) {
+            slots[p] = slot;
+            char c = descriptor.charAt(i);
+            slot += (c == 'J' || c == 'D') ? 2 : 1;
+            while (descriptor.charAt(i) == '[')
+                i++;
+            i = (descriptor.charAt(i) == 'L') ? descriptor.indexOf(';', i) + 1 : i + 1;
+        }
+        return slots;
+    }
+
+    private static String descriptor(Method method) {
+        StringBuilder out = new StringBuilder("(");
+        for (Class<?> type : method.getParameterTypes())
+            out.append(descriptor(type));
+        return out.append(')').append(descriptor(method.getReturnType())).toString();
+    }
+
+    private static String descriptor(Class<?> type) {
+        if (type.isArray())
+            return type.getName().replace('.', '/');
+        if (!type.isPrimitive())
+            return "L" + type.getName().replace('.', '/') + ";";
+        if (type == void.class)
+            return "V";
+        if (type == boolean.class)
+            return "Z";
+        if (type == long.class)
+            return "J";
+        return String.valueOf(Character.toUpperCase(type.getName().charAt(0))); // B, C, D, F, I, S
+    }
+}
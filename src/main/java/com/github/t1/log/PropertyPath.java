@@ -0,0 +1,193 @@
+package com.github.t1.log;
+
+import lombok.SneakyThrows;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.RecordComponent;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * An expression like <code>address.zip</code>, compiled once into a chain of {@link MethodHandle}s. A segment can be a
+ * getter (<code>getZip()</code> or <code>isZip()</code>), a record component, a public field, or a {@link Map} key.
+ * <p>
+ * Every segment has a small inline cache of the accessors for the last few receiver classes, so the usual
+ * monomorphic case is a single type check; other classes resolve the accessors from a per-class cache. A
+ * <code>null</code> segment stops the evaluation and returns <code>null</code>.
+ */
+class PropertyPath {
+    private static final int INLINE_CACHE_SIZE = 4;
+    private static final MethodType ACCESSOR = MethodType.methodType(Object.class, Object.class);
+    private static final MethodHandle MAP_GET = mapGet();
+
+    private static MethodHandle mapGet() {
+        try {
+            return MethodHandles.publicLookup().findVirtual(Map.class, "get",
+                MethodType.methodType(Object.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /** The accessors by property name, resolved once per receiver class */
+    private static final ClassValue<Map<String, MethodHandle>> ACCESSORS = new ClassValue<>() {
+        @Override protected Map<String, MethodHandle> computeValue(Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+
+    static PropertyPath compile(String expression) {
+        String[] names = (expression == null) ? new String[0] : expression.split("\\.");
+        Segment[] segments = new Segment[names.length];
+        for (int i = 0; i < names.length; i++)
+            segments[i] = new Segment(names[i]);
+        return new PropertyPath(segments);
+    }
+
+    private final Segment[] segments;
+
+    private PropertyPath(Segment[] segments) {
+        this.segments = segments;
+    }
+
+    public Object evaluateOn(Object object) {
+        for (Segment segment : segments) {
+            if (object == null)
+                return null;
+            object = segment.get(object);
+        }
+        return object;
+    }
+
+    private static class CacheEntry {
+        private final Class<?> type;
+        private final MethodHandle accessor;
+        private final CacheEntry next;
+        private final int size;
+
+        CacheEntry(Class<?> type, MethodHandle accessor, CacheEntry next) {
+            this.type = type;
+            this.accessor = accessor;
+            this.next = next;
+            this.size = (next == null) ? 1 : next.size + 1;
+        }
+    }
+
+    private static class Segment {
+        private final String name;
+        /** The result, if the property can't be read; created only once */
+        private final String failure;
+        /** Immutable entries, replaced as a whole, so the reads need no locking */
+        private volatile CacheEntry cache;
+
+        Segment(String name) {
+            this.name = name;
+            this.failure = "can't get " + name;
+        }
+
+        Object get(Object object) {
+            try {
+                return invoke(accessor(object.getClass()), object);
+            } catch (Throwable e) { // the getter may throw anything
+                return failure;
+            }
+        }
+
+        private MethodHandle accessor(Class<?> type) {
+            CacheEntry cache = this.cache;
+            for (CacheEntry entry = cache; entry != null; entry = entry.next)
+                if (entry.type == type)
+                    return entry.accessor;
+            MethodHandle accessor = ACCESSORS.get(type).computeIfAbsent(name, key -> resolve(type));
+            if (cache == null || cache.size < INLINE_CACHE_SIZE)
+                this.cache = new CacheEntry(type, accessor, cache); // benign race: a lost entry is resolved again
+            return accessor;
+        }
+
+        @SneakyThrows(Throwable.class)
+        private static Object invoke(MethodHandle accessor, Object object) {
+            return accessor.invokeExact(object);
+        }
+
+        private MethodHandle resolve(Class<?> type) {
+            try {
+                if (Map.class.isAssignableFrom(type))
+                    return MethodHandles.insertArguments(MAP_GET, 1, name).asType(ACCESSOR);
+                Method method = accessorMethod(type, name);
+                if (method != null)
+                    return unreflect(method).asType(ACCESSOR);
+                Field field = publicField(type, name);
+                if (field != null)
+                    return unreflect(field).asType(ACCESSOR);
+            } catch (IllegalAccessException | RuntimeException e) { // e.g. an InaccessibleObjectException
+                return constant(failure);
+            }
+            return constant(failure);
+        }
+
+        private static MethodHandle constant(String value) {
+            return MethodHandles.dropArguments(MethodHandles.constant(Object.class, value), 0, Object.class);
+        }
+
+        private static Method accessorMethod(Class<?> type, String name) {
+            if (type.isRecord())
+                for (RecordComponent component : type.getRecordComponents())
+                    if (component.getName().equals(name))
+                        return component.getAccessor();
+            String initCap = Character.toUpperCase(name.charAt(0)) + name.substring(1);
+            Method getter = publicMethod(type, "get" + initCap);
+            if (getter == null) {
+                getter = publicMethod(type, "is" + initCap);
+                if (getter != null && !isBoolean(getter.getReturnType()))
+                    getter = null;
+            }
+            return getter;
+        }
+
+        private static boolean isBoolean(Class<?> type) {
+            return type == boolean.class || type == Boolean.class;
+        }
+
+        private static Method publicMethod(Class<?> type, String name) {
+            try {
+                Method method = type.getMethod(name);
+                return (method.getReturnType() == void.class) ? null : method;
+            } catch (NoSuchMethodException e) {
+                return null;
+            }
+        }
+
+        private static Field publicField(Class<?> type, String name) {
+            try {
+                Field field = type.getField(name);
+                return Modifier.isStatic(field.getModifiers()) ? null : field;
+            } catch (NoSuchFieldException e) {
+                return null;
+            }
+        }
+
+        /** Public members of non-public classes, e.g. local classes, are only accessible after a setAccessible */
+        private static MethodHandle unreflect(Method method) throws IllegalAccessException {
+            try {
+                return MethodHandles.lookup().unreflect(method);
+            } catch (IllegalAccessException e) {
+                method.setAccessible(true);
+                return MethodHandles.lookup().unreflect(method);
+            }
+        }
+
+        private static MethodHandle unreflect(Field field) throws IllegalAccessException {
+            try {
+                return MethodHandles.lookup().unreflectGetter(field);
+            } catch (IllegalAccessException e) {
+                field.setAccessible(true);
+                return MethodHandles.lookup().unreflectGetter(field);
+            }
+        }
+    }
+}
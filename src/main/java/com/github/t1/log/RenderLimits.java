@@ -0,0 +1,62 @@
+package com.github.t1.log;
+
+import lombok.Value;
+
+import java.util.Properties;
+
+import static com.github.t1.log.LogLimits.GLOBAL;
+
+/** The effective {@link LogLimits}, i.e. with the global limits filled in */
+@Value
+class RenderLimits {
+    static final RenderLimits DEFAULTS = new RenderLimits(10_000, 100, 100, 5);
+    private static final RenderLimits GLOBAL_LIMITS = DEFAULTS.with(System.getProperties());
+
+    static RenderLimits global() {return GLOBAL_LIMITS;}
+
+    int maxLength;
+    int maxElements;
+    int maxEntries;
+    int maxDepth;
+
+    /** Override with the <code>com.github.t1.log.*</code> properties, e.g. <code>com.github.t1.log.maxLength</code> */
+    RenderLimits with(Properties properties) {
+        return new RenderLimits(
+            property(properties, "maxLength", maxLength),
+            property(properties, "maxElements", maxElements),
+            property(properties, "maxEntries", maxEntries),
+            property(properties, "maxDepth", maxDepth));
+    }
+
+    private static int property(Properties properties, String name, int defaultValue) {
+        String key = "com.github.t1.log." + name;
+        String value = properties.getProperty(key);
+        if (value == null)
+            return defaultValue;
+        int limit;
+        try {
+            limit = Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+        return checked(limit, defaultValue, "system property " + key);
+    }
+
+    RenderLimits with(LogLimits limits) {
+        return new RenderLimits(
+            checked(limits.maxLength(), maxLength, "@LogLimits maxLength"),
+            checked(limits.maxElements(), maxElements, "@LogLimits maxElements"),
+            checked(limits.maxEntries(), maxEntries, "@LogLimits maxEntries"),
+            checked(limits.maxDepth(), maxDepth, "@LogLimits maxDepth"));
+    }
+
+    /** {@link LogLimits#GLOBAL} means the default; any other negative limit is a mistake, not 'unlimited' */
+    private static int checked(int limit, int defaultValue, String source) {
+        if (limit == GLOBAL)
+            return defaultValue;
+        if (limit < 0)
+            throw new IllegalArgumentException("invalid " + source + ": " + limit + "; must not be negative, or "
+                + GLOBAL + " for the global limit");
+        return limit;
+    }
+}
@@ -22,8 +22,9 @@ public abstract class RepeatController {
 
         @Override
         public boolean shouldRepeat() {
-            if (System.currentTimeMillis() >= nextRepeat) {
-                nextRepeat = System.currentTimeMillis() + timeUnit.toMillis(1);
+            long now = System.currentTimeMillis();
+            if (now >= nextRepeat) {
+                nextRepeat = now + timeUnit.toMillis(1);
                 return true;
             } else {
                 return false;
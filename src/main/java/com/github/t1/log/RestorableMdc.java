@@ -1,39 +1,293 @@
 package com.github.t1.log;
 
-import java.util.*;
-
 import org.slf4j.MDC;
+import org.slf4j.spi.MDCAdapter;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
 
+/**
+ * The {@link MDC} changes of one logged invocation, so they can be {@link #restore() restored} when it returns.
+ * <p>
+ * The scopes are thread-confined and kept as a per-thread stack, so nested invocations each get their own scope,
+ * and the slot arrays are reused by later invocations on the same thread instead of allocating a map every time.
+ * An idle thread only keeps its scopes weakly, so they don't pin the class loader of the application.
+ * <p>
+ * The changes are collected and only written to the MDC adapter when they are {@link #apply() applied}, and a value
+ * that doesn't change isn't written (nor restored) at all. Adapters that copy their map on every write, like
+ * the log4j and old logback adapters, get all changes as one {@link MDCAdapter#setContextMap(Map)}; the others only
+ * get the individual changes.
+ * <p>
+ * The scopes also count the nesting depth of the logged calls, so the <code>indent</code> doesn't have to be parsed
+ * from the MDC.
+ */
 class RestorableMdc {
-    private Map<String, String> memento;
+    private static final String[] NO_SLOTS = new String[0];
+    private static final boolean[] NO_FLAGS = new boolean[0];
+    /**
+     * The innermost open scope; the thread-local is removed when the outermost scope is restored, so idle (pooled)
+     * threads don't keep a scope, which would pin the class loader of the application.
+     */
+    private static final ThreadLocal<RestorableMdc> CURRENT = new ThreadLocal<>();
+    /** The outermost scope of the last call on this thread, for reuse; weakly, so it doesn't pin the class loader */
+    private static final ThreadLocal<WeakReference<RestorableMdc>> IDLE = new ThreadLocal<>();
+    /** The outer of the outermost scopes of all threads; it's never changed */
+    private static final RestorableMdc ROOT = new RestorableMdc(null);
+
+    /** Write the changes as one map instead of key by key; detected from the adapter, or set explicitly */
+    static final boolean BATCHED = Boolean.parseBoolean(System.getProperty("com.github.t1.log.mdc.batched",
+        Boolean.toString(isCopyOnWrite(MDC.getMDCAdapter()))));
+
+    private static boolean isCopyOnWrite(MDCAdapter adapter) {
+        if (adapter == null)
+            return false;
+        Class<?> type = adapter.getClass();
+        switch (type.getName()) {
+            case "org.apache.logging.slf4j.Log4jMDCAdapter":
+                return true;
+            case "ch.qos.logback.classic.util.LogbackMDCAdapter": // copies on write before logback 1.3
+                return Arrays.stream(type.getDeclaredFields()).anyMatch(f -> f.getName().equals("copyOnThreadLocal"));
+            default:
+                return false;
+        }
+    }
+
+    /** Start a new scope on the current thread; <code>capacity</code> is the number of keys expected. */
+    static RestorableMdc open(int capacity) {
+        return open(capacity, BATCHED);
+    }
+
+    static RestorableMdc open(int capacity, boolean batched) {
+        RestorableMdc outer = current();
+        RestorableMdc scope = (outer == ROOT) ? idle() : outer.inner;
+        if (scope == null) {
+            scope = new RestorableMdc(outer);
+            if (outer == ROOT)
+                IDLE.set(new WeakReference<>(scope));
+            else
+                outer.inner = scope;
+        }
+        scope.ensureCapacity(capacity);
+        scope.depth = outer.depth;
+        scope.batched = batched;
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    private static RestorableMdc idle() {
+        WeakReference<RestorableMdc> idle = IDLE.get();
+        return (idle == null) ? null : idle.get();
+    }
+
+    /**
+     * The values of all open scopes on this thread, i.e. all MDC variables set by the logged calls, the inner scopes
+     * overriding the outer, and the current nesting depth.
+     */
+    static LogContextSnapshot snapshot() {
+        RestorableMdc current = current();
+        int count = 0;
+        for (RestorableMdc scope = current; scope != null; scope = scope.outer)
+            count += scope.size;
+        if (count == 0 && current.depth < 0)
+            return LogContextSnapshot.EMPTY;
+        String[] keys = new String[count];
+        String[] values = new String[count];
+        int size = 0;
+        for (RestorableMdc scope = current; scope != null; scope = scope.outer)
+            for (int i = 0; i < scope.size; i++)
+                if (!contains(keys, size, scope.keys[i])) {
+                    keys[size] = scope.keys[i];
+                    values[size] = scope.newValues[i];
+                    size++;
+                }
+        return new LogContextSnapshot(Arrays.copyOf(keys, size), Arrays.copyOf(values, size), current.depth);
+    }
+
+    /** There is no logged call on this thread */
+    static boolean isIdle() {
+        return CURRENT.get() == null;
+    }
+
+    /** The innermost scope on this thread */
+    static RestorableMdc current() {
+        RestorableMdc current = CURRENT.get();
+        return (current == null) ? ROOT : current;
+    }
+
+    private static boolean contains(String[] keys, int size, String key) {
+        for (int i = 0; i < size; i++)
+            if (keys[i].equals(key))
+                return true;
+        return false;
+    }
+
+    private final RestorableMdc outer;
+    private RestorableMdc inner;
+    /** The nesting depth of the logged calls; <code>-1</code> as long as no call was logged on this thread */
+    private int depth;
+    /** Write the changes as one map instead of key by key */
+    private boolean batched;
+    /** The values of this and the enclosing scopes are bound to the {@link ScopedLogContext}, or there are none */
+    private boolean bound;
+
+    private String[] keys = NO_SLOTS;
+    private String[] oldValues = NO_SLOTS;
+    private String[] newValues = NO_SLOTS;
+    /** The new value is not written, yet */
+    private boolean[] pending = NO_FLAGS;
+    /** The new value is written and has to be restored */
+    private boolean[] written = NO_FLAGS;
+    private int size;
+    private int pendingCount;
+    private int writtenCount;
+
+    private RestorableMdc(RestorableMdc outer) {
+        this.outer = outer;
+        this.depth = -1;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (keys.length < capacity) {
+            keys = Arrays.copyOf(keys, capacity);
+            oldValues = Arrays.copyOf(oldValues, capacity);
+            newValues = Arrays.copyOf(newValues, capacity);
+            pending = Arrays.copyOf(pending, capacity);
+            written = Arrays.copyOf(written, capacity);
+        }
+    }
+
+    /** Continue the nesting depth of a {@link LogContextSnapshot snapshot}, e.g. from another thread */
+    void setDepth(int depth) {
+        this.depth = depth;
+    }
+
+    /** A logged call is one level deeper than the logged call it's nested in; nested scopes start with this depth */
+    int incrementDepth() {
+        return ++depth;
+    }
+
+    /**
+     * A logged call that didn't change anything sees the same log context as the enclosing scope, so it only has to
+     * be bound again, if it's not bound there, yet.
+     */
+    boolean needsBinding() {
+        return writtenCount > 0 || depth != outer.depth || (outer.outer != null && !outer.bound);
+    }
 
-    public String get(String indent) {
-        return MDC.get(indent);
+    void markBound() {
+        this.bound = true;
+    }
+
+    /** The value including the changes that are not applied, yet */
+    public String get(String key) {
+        int i = indexOf(key);
+        return (i < 0) ? MDC.get(key) : newValues[i];
     }
 
     public void put(String key, String value) {
-        String oldValue = MDC.get(key);
-        memento().put(key, oldValue);
-        MDC.put(key, value);
+        int i = indexOf(key);
+        if (i < 0) {
+            String oldValue = MDC.get(key);
+            if (Objects.equals(oldValue, value))
+                return;
+            i = record(key, oldValue);
+        } else if (Objects.equals(newValues[i], value)) {
+            return;
+        }
+        newValues[i] = value;
+        if (!pending[i]) {
+            pending[i] = true;
+            pendingCount++;
+        }
     }
 
-    private Map<String, String> memento() {
-        if (memento == null)
-            memento = new HashMap<>();
-        return memento;
+    private int indexOf(String key) {
+        for (int i = 0; i < size; i++)
+            if (keys[i].equals(key))
+                return i;
+        return -1;
     }
 
-    public void restore() {
-        if (memento == null)
+    private int record(String key, String oldValue) {
+        if (size == keys.length)
+            ensureCapacity(Math.max(4, size * 2));
+        keys[size] = key;
+        oldValues[size] = oldValue;
+        return size++;
+    }
+
+    /** Write the pending changes to the MDC */
+    public void apply() {
+        if (pendingCount == 0)
             return;
-        for (Map.Entry<String, String> entry : memento.entrySet()) {
-            String key = entry.getKey();
-            String value = entry.getValue();
-            if (value == null) {
-                MDC.remove(key);
-            } else {
-                MDC.put(key, value);
+        if (batched && pendingCount > 1) {
+            Map<String, String> map = copyOfContextMap();
+            for (int i = 0; i < size; i++)
+                if (pending[i])
+                    set(map, keys[i], newValues[i]);
+            MDC.setContextMap(map);
+        } else {
+            for (int i = 0; i < size; i++)
+                if (pending[i])
+                    set(keys[i], newValues[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            if (pending[i] && !written[i]) {
+                written[i] = true;
+                writtenCount++;
             }
+            pending[i] = false;
+        }
+        pendingCount = 0;
+    }
+
+    /** Restore the MDC values from before this scope and close it. */
+    public void restore() {
+        if (batched && writtenCount > 1) {
+            Map<String, String> map = copyOfContextMap();
+            for (int i = size - 1; i >= 0; i--)
+                if (written[i])
+                    set(map, keys[i], oldValues[i]);
+            MDC.setContextMap(map);
+        } else if (writtenCount > 0) {
+            for (int i = size - 1; i >= 0; i--)
+                if (written[i])
+                    set(keys[i], oldValues[i]);
+        }
+        for (int i = 0; i < size; i++) {
+            keys[i] = null;
+            oldValues[i] = null;
+            newValues[i] = null;
+            pending[i] = false;
+            written[i] = false;
         }
+        size = pendingCount = writtenCount = 0;
+        bound = false;
+        if (outer == ROOT)
+            CURRENT.remove();
+        else
+            CURRENT.set(outer);
+    }
+
+    private static Map<String, String> copyOfContextMap() {
+        Map<String, String> map = MDC.getCopyOfContextMap();
+        return (map == null) ? new HashMap<>() : map;
+    }
+
+    private static void set(Map<String, String> map, String key, String value) {
+        if (value == null)
+            map.remove(key);
+        else
+            map.put(key, value);
+    }
+
+    private static void set(String key, String value) {
+        if (value == null)
+            MDC.remove(key);
+        else
+            MDC.put(key, value);
     }
 }
@@ -0,0 +1,136 @@
+package com.github.t1.log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * The {@link Logged#returnFormat()}, parsed once into literal and placeholder segments, so rendering it is a simple
+ * loop, and the return value is only converted, if the format actually contains the <code>{returnValue}</code>.
+ */
+class ReturnFormat {
+    private interface Segment {
+        void appendTo(StringBuilder out, Object convertedReturnValue, long nanos, ReturnFormat format);
+    }
+
+    private enum Placeholder implements Segment {
+        RETURN_VALUE("{returnValue}") {
+            @Override
+            public void appendTo(StringBuilder out, Object convertedReturnValue, long nanos, ReturnFormat format) {
+                ValueRenderer.append(out, convertedReturnValue, format.limits);
+            }
+        },
+        TIME("{time}") {
+            @Override
+            public void appendTo(StringBuilder out, Object convertedReturnValue, long nanos, ReturnFormat format) {
+                out.append(format.timeUnit.convert(nanos, NANOSECONDS));
+            }
+        },
+        TIME_MICROS("{timeMicros}") {
+            @Override
+            public void appendTo(StringBuilder out, Object convertedReturnValue, long nanos, ReturnFormat format) {
+                out.append(NANOSECONDS.toMicros(nanos));
+            }
+        },
+        TIME_NANOS("{timeNanos}") {
+            @Override
+            public void appendTo(StringBuilder out, Object convertedReturnValue, long nanos, ReturnFormat format) {
+                out.append(nanos);
+            }
+        };
+
+        private final String token;
+
+        Placeholder(String token) {
+            this.token = token;
+        }
+    }
+
+    private static class Literal implements Segment {
+        private final String text;
+
+        Literal(String text) {
+            this.text = text;
+        }
+
+        @Override
+        public void appendTo(StringBuilder out, Object convertedReturnValue, long nanos, ReturnFormat format) {
+            out.append(text);
+        }
+    }
+
+    static ReturnFormat parse(String format, TimeUnit timeUnit, RenderLimits limits) {
+        List<Segment> segments = new ArrayList<>();
+        int literalLength = 0;
+        int start = 0;
+        int i = 0;
+        while (i < format.length()) {
+            Placeholder placeholder = placeholderAt(format, i);
+            if (placeholder == null) {
+                i++;
+                continue;
+            }
+            if (start < i) {
+                segments.add(new Literal(format.substring(start, i)));
+                literalLength += i - start;
+            }
+            segments.add(placeholder);
+            i += placeholder.token.length();
+            start = i;
+        }
+        if (start < format.length()) {
+            segments.add(new Literal(format.substring(start)));
+            literalLength += format.length() - start;
+        }
+        return new ReturnFormat(segments.toArray(new Segment[0]), literalLength, timeUnit, limits);
+    }
+
+    private static Placeholder placeholderAt(String format, int index) {
+        if (format.charAt(index) != '{')
+            return null;
+        for (Placeholder placeholder : Placeholder.values())
+            if (format.startsWith(placeholder.token, index))
+                return placeholder;
+        return null;
+    }
+
+    private final Segment[] segments;
+    private final int literalLength;
+    private final TimeUnit timeUnit;
+    private final RenderLimits limits;
+    private final boolean containsReturnValue;
+
+    private ReturnFormat(Segment[] segments, int literalLength, TimeUnit timeUnit, RenderLimits limits) {
+        this.segments = segments;
+        this.literalLength = literalLength;
+        this.timeUnit = timeUnit;
+        this.limits = limits;
+        this.containsReturnValue = contains(Placeholder.RETURN_VALUE);
+    }
+
+    private boolean contains(Placeholder placeholder) {
+        for (Segment segment : segments)
+            if (segment == placeholder)
+                return true;
+        return false;
+    }
+
+    public boolean isEmpty() {
+        return segments.length == 0;
+    }
+
+    public String render(Object returnValue, long nanos, Converters converters) {
+        Object converted = containsReturnValue ? converters.convert(returnValue) : null;
+        StringBuilder out = MessageBuffer.acquire(literalLength + 32);
+        String message;
+        try {
+            for (Segment segment : segments)
+                segment.appendTo(out, converted, nanos, this);
+        } finally {
+            message = MessageBuffer.release(out);
+        }
+        return message;
+    }
+}
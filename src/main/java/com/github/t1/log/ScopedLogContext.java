@@ -0,0 +1,123 @@
+package com.github.t1.log;
+
+import jakarta.interceptor.InvocationContext;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+
+import static java.lang.invoke.MethodType.methodType;
+
+/**
+ * Binds the {@link LogContextSnapshot log context} of a logged call to a <code>ScopedValue</code> for the extent of
+ * the <code>proceed()</code>, so the subtasks of a <code>StructuredTaskScope</code> inherit it without copying any
+ * maps; only when a subtask makes a logged call itself, the inherited context is installed into its MDC, so the
+ * logging backend sees it. Other code can read it with {@link LogContextSnapshot#capture()} or through the
+ * {@link ScopedMdcAdapter}.
+ * <p>
+ * Enable it with the system property <code>com.github.t1.log.scoped=true</code>. The <code>ScopedValue</code>s are
+ * only available in JDK 21+ (as a preview before JDK 25), so they are accessed reflectively; if they are not
+ * available, the log context is only kept in the MDC, as without this option.
+ */
+@Slf4j
+final class ScopedLogContext {
+    private static final Binding BINDING = Binding.create();
+
+    static final boolean ENABLED = Boolean.getBoolean("com.github.t1.log.scoped") && isAvailable();
+
+    private ScopedLogContext() {}
+
+    static boolean isAvailable() {
+        return BINDING != null;
+    }
+
+    /** The log context bound by a logged call on this or a parent thread, or <code>null</code> */
+    static LogContextSnapshot current() {
+        return isAvailable() ? BINDING.get() : null;
+    }
+
+    /**
+     * Install the bound log context, if this is the first logged call on this thread, e.g. in a subtask. Without
+     * <code>ScopedValue</code>s, e.g. when the option is set for an older JDK, there's nothing to inherit.
+     */
+    static LogContextSnapshot.Scope inherit() {
+        LogContextSnapshot inherited = (isAvailable() && RestorableMdc.isIdle()) ? BINDING.get() : null;
+        if (inherited == null || inherited.isEmpty())
+            return LogContextSnapshot.EMPTY.install();
+        LogContextSnapshot.Scope scope = inherited.install();
+        RestorableMdc.current().markBound();
+        return scope;
+    }
+
+    /**
+     * Proceed with the log context of the logged call bound. A call that didn't change the log context proceeds
+     * within the binding of the enclosing call, if any, so it neither takes a snapshot nor binds it.
+     */
+    static Object proceed(InvocationContext context, RestorableMdc mdc) throws Exception {
+        if (!isAvailable())
+            return context.proceed();
+        boolean needsBinding = mdc.needsBinding();
+        mdc.markBound();
+        if (!needsBinding)
+            return context.proceed();
+        LogContextSnapshot snapshot = RestorableMdc.snapshot();
+        if (snapshot.isEmpty())
+            return context.proceed();
+        Object[] result = new Object[1];
+        Exception[] failure = new Exception[1];
+        BINDING.run(snapshot, () -> {
+            try {
+                result[0] = context.proceed();
+            } catch (Exception e) {
+                failure[0] = e;
+            }
+        });
+        if (failure[0] != null)
+            throw failure[0];
+        return result[0];
+    }
+
+    /** The reflective access to a <code>ScopedValue&lt;LogContextSnapshot&gt;</code> */
+    private static class Binding {
+        static Binding create() {
+            try {
+                Class<?> scopedValue = Class.forName("java.lang.ScopedValue");
+                Class<?> carrier = Class.forName("java.lang.ScopedValue$Carrier");
+                MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+                Object key = lookup.findStatic(scopedValue, "newInstance", methodType(scopedValue)).invoke();
+                return new Binding(
+                    lookup.findStatic(scopedValue, "where", methodType(carrier, scopedValue, Object.class))
+                        .bindTo(key),
+                    lookup.findVirtual(carrier, "run", methodType(void.class, Runnable.class)),
+                    lookup.findVirtual(scopedValue, "isBound", methodType(boolean.class)).bindTo(key),
+                    lookup.findVirtual(scopedValue, "get", methodType(Object.class)).bindTo(key));
+            } catch (Throwable e) { // e.g. a ClassNotFoundException or a preview feature that's not enabled
+                log.debug("scoped values are not available: {}", e.toString());
+                return null;
+            }
+        }
+
+        private final MethodHandle where;
+        private final MethodHandle run;
+        private final MethodHandle isBound;
+        private final MethodHandle get;
+
+        private Binding(MethodHandle where, MethodHandle run, MethodHandle isBound, MethodHandle get) {
+            this.where = where;
+            this.run = run;
+            this.isBound = isBound;
+            this.get = get;
+        }
+
+        @SneakyThrows(Throwable.class)
+        LogContextSnapshot get() {
+            return ((boolean) isBound.invoke()) ? (LogContextSnapshot) get.invoke() : null;
+        }
+
+        @SneakyThrows(Throwable.class)
+        void run(LogContextSnapshot snapshot, Runnable operation) {
+            run.invoke(where.invoke((Object) snapshot), operation);
+        }
+    }
+}
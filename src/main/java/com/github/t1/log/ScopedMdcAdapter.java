@@ -0,0 +1,57 @@
+package com.github.t1.log;
+
+import org.slf4j.spi.MDCAdapter;
+
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Exposes the log context {@link ScopedLogContext inherited} through a <code>ScopedValue</code> to the readers of the
+ * MDC: the values in the MDC itself take precedence, the inherited values fill the gaps. Wrap the adapter of your
+ * slf4j provider with this one, if your threads read the MDC without making a logged call themselves.
+ */
+public class ScopedMdcAdapter implements MDCAdapter {
+    private final MDCAdapter delegate;
+
+    public ScopedMdcAdapter(MDCAdapter delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override public String get(String key) {
+        String value = delegate.get(key);
+        if (value == null) {
+            LogContextSnapshot inherited = ScopedLogContext.current();
+            if (inherited != null)
+                value = inherited.get(key);
+        }
+        return value;
+    }
+
+    @Override public Map<String, String> getCopyOfContextMap() {
+        Map<String, String> map = delegate.getCopyOfContextMap();
+        LogContextSnapshot inherited = ScopedLogContext.current();
+        if (inherited == null)
+            return map;
+        if (map == null)
+            map = new HashMap<>();
+        inherited.putMissingInto(map);
+        return map;
+    }
+
+    @Override public void put(String key, String val) {delegate.put(key, val);}
+
+    @Override public void remove(String key) {delegate.remove(key);}
+
+    @Override public void clear() {delegate.clear();}
+
+    @Override public void setContextMap(Map<String, String> contextMap) {delegate.setContextMap(contextMap);}
+
+    @Override public void pushByKey(String key, String value) {delegate.pushByKey(key, value);}
+
+    @Override public String popByKey(String key) {return delegate.popByKey(key);}
+
+    @Override public Deque<String> getCopyOfDequeByKey(String key) {return delegate.getCopyOfDequeByKey(key);}
+
+    @Override public void clearDequeByKey(String key) {delegate.clearDequeByKey(key);}
+}
@@ -0,0 +1,230 @@
+package com.github.t1.log;
+
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Appends values to a log message like slf4j does it, i.e. arrays are rendered with their elements, but without
+ * creating intermediate strings for the boxed primitives or the results of appending converters.
+ * <p>
+ * Every value is bounded by the {@link RenderLimits}: strings, collections, maps, and arrays are only iterated until
+ * a limit is reached, and the rest is replaced by {@value #TRUNCATED}. Byte arrays and {@link ByteBuffer}s are rendered
+ * as a hex preview.
+ */
+final class ValueRenderer {
+    static final String TRUNCATED = "...";
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /** Only the JDK types with their standard <code>toString</code> are rendered element by element */
+    private static final ClassValue<Boolean> STANDARD_TO_STRING = new ClassValue<>() {
+        @Override protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("toString").getDeclaringClass().getName().startsWith("java.");
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    private ValueRenderer() {}
+
+    static void append(StringBuilder out, Object value) {
+        append(out, value, RenderLimits.global());
+    }
+
+    static void append(StringBuilder out, Object value, RenderLimits limits) {
+        int start = out.length();
+        int end = (int) Math.min(Integer.MAX_VALUE - TRUNCATED.length(), (long) start + limits.getMaxLength());
+        appendValue(out, value, limits, end, 0, null);
+        if (out.length() > end) {
+            out.setLength(end);
+            out.append(TRUNCATED);
+        }
+    }
+
+    /** Appending more than <code>end</code> is fine, but the caller will cut it off there */
+    private static void appendValue(StringBuilder out, Object value, RenderLimits limits, int end, int depth,
+        Map<Object[], Object> seen) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof String) {
+            appendChars(out, (String) value, end);
+        } else if (value instanceof Integer) {
+            out.append((int) (Integer) value);
+        } else if (value instanceof Long) {
+            out.append((long) (Long) value);
+        } else if (value instanceof Boolean) {
+            out.append((boolean) (Boolean) value);
+        } else if (value instanceof Character) {
+            out.append((char) (Character) value);
+        } else if (value instanceof Converters.AppendingConversion) {
+            ((Converters.AppendingConversion) value).appendTo(out);
+        } else if (value instanceof byte[]) {
+            appendBytes(out, "byte[", (byte[]) value, null, limits, end);
+        } else if (value instanceof ByteBuffer) {
+            appendBytes(out, "ByteBuffer[", null, (ByteBuffer) value, limits, end);
+        } else if (value.getClass().isArray()) {
+            appendArray(out, value, limits, end, depth, seen);
+        } else if (value instanceof Collection && STANDARD_TO_STRING.get(value.getClass())) {
+            appendCollection(out, (Collection<?>) value, limits, end, depth);
+        } else if (value instanceof Map && STANDARD_TO_STRING.get(value.getClass())) {
+            appendMap(out, (Map<?, ?>) value, limits, end, depth);
+        } else if (value instanceof CharSequence) {
+            appendChars(out, (CharSequence) value, end);
+        } else {
+            appendToString(out, value);
+        }
+    }
+
+    /** Append one char more than fits, so the caller knows it has to cut off */
+    private static void appendChars(StringBuilder out, CharSequence chars, int end) {
+        int fits = Math.max(0, end - out.length()) + 1;
+        if (chars.length() <= fits)
+            out.append(chars);
+        else
+            out.append(chars, 0, fits);
+    }
+
+    private static void appendToString(StringBuilder out, Object value) {
+        try {
+            out.append(value);
+        } catch (RuntimeException e) {
+            out.append("[FAILED toString()]");
+        }
+    }
+
+    /** The absolute <code>get</code> of the buffer doesn't move its position */
+    private static void appendBytes(StringBuilder out, String prefix, byte[] array, ByteBuffer buffer,
+        RenderLimits limits, int end) {
+        int offset = (array == null) ? buffer.position() : 0;
+        int length = (array == null) ? buffer.remaining() : array.length;
+        out.append(prefix).append(length).append("]:");
+        int preview = Math.min(length, limits.getMaxElements());
+        for (int i = 0; i < preview && out.length() <= end; i++) {
+            byte b = (array == null) ? buffer.get(offset + i) : array[i];
+            out.append(HEX[(b >> 4) & 0xf]).append(HEX[b & 0xf]);
+        }
+        if (preview < length)
+            out.append(TRUNCATED);
+    }
+
+    private static void appendArray(StringBuilder out, Object array, RenderLimits limits, int end, int depth,
+        Map<Object[], Object> seen) {
+        if (depth >= limits.getMaxDepth()) {
+            out.append('[').append(TRUNCATED).append(']');
+            return;
+        }
+        if (array instanceof Object[]) {
+            appendObjectArray(out, (Object[]) array, limits, end, depth, seen);
+            return;
+        }
+        out.append('[');
+        int length = Array.getLength(array);
+        for (int i = 0; i < length && out.length() <= end; i++) {
+            if (i > 0)
+                out.append(", ");
+            if (i == limits.getMaxElements()) {
+                out.append(TRUNCATED);
+                break;
+            }
+            appendPrimitiveElement(out, array, i);
+        }
+        out.append(']');
+    }
+
+    private static void appendPrimitiveElement(StringBuilder out, Object array, int i) {
+        if (array instanceof int[])
+            out.append(((int[]) array)[i]);
+        else if (array instanceof long[])
+            out.append(((long[]) array)[i]);
+        else if (array instanceof short[])
+            out.append(((short[]) array)[i]);
+        else if (array instanceof char[])
+            out.append(((char[]) array)[i]);
+        else if (array instanceof boolean[])
+            out.append(((boolean[]) array)[i]);
+        else if (array instanceof float[])
+            out.append(((float[]) array)[i]);
+        else
+            out.append(((double[]) array)[i]);
+    }
+
+    private static void appendObjectArray(StringBuilder out, Object[] array, RenderLimits limits, int end, int depth,
+        Map<Object[], Object> seen) {
+        if (seen == null)
+            seen = new IdentityHashMap<>();
+        if (seen.containsKey(array)) {
+            out.append("[...]");
+            return;
+        }
+        seen.put(array, null);
+        out.append('[');
+        for (int i = 0; i < array.length && out.length() <= end; i++) {
+            if (i > 0)
+                out.append(", ");
+            if (i == limits.getMaxElements()) {
+                out.append(TRUNCATED);
+                break;
+            }
+            appendValue(out, array[i], limits, end, depth + 1, seen);
+        }
+        out.append(']');
+        seen.remove(array);
+    }
+
+    private static void appendCollection(StringBuilder out, Collection<?> collection, RenderLimits limits, int end,
+        int depth) {
+        if (depth >= limits.getMaxDepth()) {
+            out.append('[').append(TRUNCATED).append(']');
+            return;
+        }
+        out.append('[');
+        int i = 0;
+        try {
+            for (Object element : collection) {
+                if (out.length() > end)
+                    break;
+                if (i > 0)
+                    out.append(", ");
+                if (i++ == limits.getMaxElements()) {
+                    out.append(TRUNCATED);
+                    break;
+                }
+                appendValue(out, element, limits, end, depth + 1, null);
+            }
+        } catch (RuntimeException e) { // e.g. a ConcurrentModificationException
+            out.append(TRUNCATED);
+        }
+        out.append(']');
+    }
+
+    private static void appendMap(StringBuilder out, Map<?, ?> map, RenderLimits limits, int end, int depth) {
+        if (depth >= limits.getMaxDepth()) {
+            out.append('{').append(TRUNCATED).append('}');
+            return;
+        }
+        out.append('{');
+        int i = 0;
+        try {
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                if (out.length() > end)
+                    break;
+                if (i > 0)
+                    out.append(", ");
+                if (i++ == limits.getMaxEntries()) {
+                    out.append(TRUNCATED);
+                    break;
+                }
+                appendValue(out, entry.getKey(), limits, end, depth + 1, null);
+                out.append('=');
+                appendValue(out, entry.getValue(), limits, end, depth + 1, null);
+            }
+        } catch (RuntimeException e) { // e.g. a ConcurrentModificationException
+            out.append(TRUNCATED);
+        }
+        out.append('}');
+    }
+}
@@ -72,13 +72,18 @@ public class VersionLogContextVariableProducer {
         }
     }
 
-    @Produces
+    /**
+     * The manifest doesn't change, so the variables are constant, i.e. they are resolved only once. A singleton must
+     * not be <code>null</code>, so without a manifest, the variables have no value, and are never put into the MDC.
+     * Before, the variables themselves were <code>null</code>.
+     */
+    @Produces @Singleton
     public LogContextVariable version() {
-        return (version == null) ? null : new LogContextVariable("version", version);
+        return new LogContextVariable("version", version);
     }
 
-    @Produces
+    @Produces @Singleton
     public LogContextVariable app() {
-        return (app == null) ? null : new LogContextVariable("app", app);
+        return new LogContextVariable("app", app);
     }
 }
@@ -17,15 +17,12 @@ import static org.mockito.Mockito.*;
 @EnableAutoWeld
 @AddEnabledInterceptors(LoggingInterceptor.class)
 @AddPackages(LoggingInterceptor.class)
-@AddBeanClasses(Converters.class)
+@AddBeanClasses({Converters.class, LogPointCache.class})
 abstract class AbstractLoggingInterceptorTests {
-    static final Object[] NO_ARGS = new Object[0];
-
     String captureMessage() {
         ArgumentCaptor<String> messageCaptor = ArgumentCaptor.forClass(String.class);
-        ArgumentCaptor<Object[]> objectCaptor = ArgumentCaptor.forClass(Object[].class);
 
-        verify(log, atLeastOnce()).debug(messageCaptor.capture(), objectCaptor.capture());
+        verify(log, atLeastOnce()).debug(messageCaptor.capture());
 
         return messageCaptor.getValue();
     }
@@ -43,11 +40,6 @@ abstract class AbstractLoggingInterceptorTests {
         givenLogLevel(DEBUG);
     }
 
-    @AfterEach
-    void clearLogPointCache() {
-        LoggingInterceptor.CACHE.clear();
-    }
-
     void givenLogLevel(LogLevel level) {
         givenLogLevel(level, log);
     }
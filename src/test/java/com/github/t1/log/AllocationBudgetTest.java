@@ -0,0 +1,109 @@
+package com.github.t1.log;
+
+import mock.logging.ArrayMdcAdapter;
+import mock.logging.MockLoggerProvider;
+import mock.logging.MockMDC;
+import mock.logging.NoOpLogger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.event.Level;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+
+import static com.github.t1.log.JsonLogDetail.PARAMETERS;
+import static com.github.t1.log.LogLevel.TRACE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Guards the hot path against regressions in the bytes allocated per logged invocation. When the level is disabled,
+ * it's only the thread-local entry of the MDC scope; when enabled, also the one of the argument snapshot, and the
+ * messages that actually go to the logger.
+ */
+class AllocationBudgetTest {
+    private static final int WARMUP = 20_000;
+    private static final int RUNS = 10_000;
+    /** The thread-locals are removed after the outermost call, so they don't pin the class loader of idle threads */
+    private static final int THREAD_LOCAL_ENTRY = 32;
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+        (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static final NoOpLogger LOG = new NoOpLogger(AllocationBudgetTest.class.getName(), Level.DEBUG);
+
+    /** The methods don't allocate anything themselves, so we measure only the logging */
+    @SuppressWarnings("unused")
+    public static class Target {
+        @Logged
+        public String greet(String name) {return name;}
+
+        @Logged(level = TRACE)
+        public String greetFinely(String name) {return name;}
+
+        @Logged
+        public void greetVoid(String name) {}
+
+        @Logged(json = PARAMETERS)
+        public void greetJson(String name, int times) {}
+    }
+
+    private final Target target = new Target();
+    private final LoggingInterceptor interceptor = new LoggingInterceptor(Collections.emptyList(), new Converters());
+
+    @BeforeEach void setUp() {
+        assumeTrue(THREADS.isThreadAllocatedMemorySupported(), "thread allocated memory not supported");
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+        MockLoggerProvider.givenLogger(LOG);
+        MockMDC.use(new ArrayMdcAdapter());
+    }
+
+    @AfterEach void tearDown() {
+        MockMDC.useMock();
+    }
+
+    private long bytesPerInvocation(String methodName, Object... args) throws Exception {
+        Class<?>[] types = new Class<?>[args.length];
+        for (int i = 0; i < args.length; i++)
+            types[i] = (args[i] instanceof Integer) ? int.class : args[i].getClass();
+        TestInvocationContext context = new TestInvocationContext(target, methodName, types, args);
+
+        for (int i = 0; i < WARMUP; i++)
+            interceptor.aroundInvoke(context);
+        long before = THREADS.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < RUNS; i++)
+            interceptor.aroundInvoke(context);
+        return (THREADS.getCurrentThreadAllocatedBytes() - before) / RUNS;
+    }
+
+    @Test void shouldNotAllocateWhenLevelIsDisabled() throws Exception {
+        long count = LOG.count();
+
+        long bytes = bytesPerInvocation("greetFinely", "world");
+
+        assertThat(LOG.count()).isEqualTo(count);
+        assertThat(bytes).isLessThanOrEqualTo(THREAD_LOCAL_ENTRY);
+    }
+
+    @Test void shouldOnlyAllocateMessageWhenLoggingVoidMethod() throws Exception {
+        long bytes = bytesPerInvocation("greetVoid", "world");
+
+        assertThat(LOG.lastMessage()).isEqualTo("greet void world");
+        assertThat(bytes).isLessThanOrEqualTo(64 + 2 * THREAD_LOCAL_ENTRY);
+    }
+
+    @Test void shouldOnlyAllocateMessagesWhenLoggingReturnValue() throws Exception {
+        long bytes = bytesPerInvocation("greet", "world");
+
+        assertThat(LOG.lastMessage()).startsWith("return world [time:");
+        assertThat(bytes).isLessThanOrEqualTo(128 + 2 * THREAD_LOCAL_ENTRY);
+    }
+
+    @Test void shouldOnlyAllocateMessageAndJsonWhenLoggingJson() throws Exception {
+        long bytes = bytesPerInvocation("greetJson", "world", 3);
+
+        assertThat(LOG.lastMessage()).isEqualTo("greet json world 3");
+        assertThat(bytes).isLessThanOrEqualTo(192 + 2 * THREAD_LOCAL_ENTRY);
+    }
+}
@@ -1,6 +1,8 @@
 package com.github.t1.log;
 
 import jakarta.enterprise.inject.Instance;
+import jakarta.ws.rs.core.MultivaluedHashMap;
+import jakarta.ws.rs.core.MultivaluedMap;
 import jakarta.ws.rs.core.UriInfo;
 import lombok.SneakyThrows;
 import lombok.Value;
@@ -10,6 +12,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.IOException;
 import java.io.Serializable;
 import java.lang.reflect.Proxy;
 import java.net.URI;
@@ -284,4 +287,108 @@ class ConvertersTest {
 
         assertEquals(uri.toString(), converted);
     }
+
+    @Test void shouldResolveNewConverterAfterNegativeResult() {
+        class Pojo {}
+        Pojo pojo = new Pojo();
+        givenConverters();
+        assertSame(pojo, converters.convert(pojo));
+
+        converters.register(new Converter() {
+            public String convert(Pojo pojo) {return "#";}
+        });
+
+        assertEquals("#", converters.convert(pojo));
+    }
+
+    @Test void shouldPrewarmAllKindsOfTypes() {
+        givenConverters(new JaxRsLogConverters());
+
+        for (Class<?> type : asList(String.class, int.class, void.class, int[].class, UriInfo.class,
+            Number.class, ConvertersTest.class))
+            converters.prewarm(type);
+
+        assertEquals("hi", converters.convert("hi"));
+        assertEquals(1, converters.convert(1));
+    }
+
+    @Test void shouldAppendPojo() {
+        class Pojo {
+            final String value = "x";
+        }
+
+        class PojoConverter implements Converter {
+            public void convert(Pojo pojo, StringBuilder out) {
+                out.append(pojo.value).append('#');
+            }
+        }
+
+        givenConverters(new PojoConverter());
+
+        StringBuilder out = new StringBuilder("a:");
+        ValueRenderer.append(out, converters.convert(new Pojo()));
+
+        assertEquals("a:x#", out.toString());
+    }
+
+    @Test void shouldAppendToAppendable() {
+        class Pojo {}
+
+        class PojoConverter implements Converter {
+            public void convert(Pojo pojo, Appendable out) throws IOException {
+                out.append("#");
+            }
+        }
+
+        givenConverters(new PojoConverter());
+
+        Object converted = converters.convert(new Pojo());
+
+        assertEquals("#", converted.toString());
+    }
+
+    @Test void shouldAppendUnconvertedIfAppendingConverterFails() {
+        @Value
+        class Pojo {
+            String value;
+        }
+
+        class FailingConverter implements Converter {
+            public void convert(Pojo object, StringBuilder out) {
+                out.append("partial");
+                throw new RuntimeException("dummy");
+            }
+        }
+
+        givenConverters(new FailingConverter());
+
+        StringBuilder out = new StringBuilder("a:");
+        ValueRenderer.append(out, converters.convert(new Pojo("x")));
+
+        assertEquals("a:Pojo(value=x)", out.toString());
+    }
+
+    @Test void shouldAppendMultivaluedMap() {
+        MultivaluedMap<String, String> map = new MultivaluedHashMap<>();
+        map.add("one", "1");
+        map.add("two", "2");
+        map.add("two", "3");
+        givenConverters(new JaxRsLogConverters());
+
+        StringBuilder out = new StringBuilder();
+        ValueRenderer.append(out, converters.convert(map));
+
+        assertEquals("{one:1, two:[23]}", out.toString());
+    }
+
+    @Test void shouldRegisterOnlyAppendingMultivaluedMapConverter() {
+        MultivaluedMap<String, String> map = new MultivaluedHashMap<>();
+        map.add("one", "1");
+        givenConverters(new JaxRsLogConverters());
+
+        Object converted = converters.convert(map);
+
+        assertFalse(converted instanceof String);
+        assertEquals("{one:1}", new JaxRsLogConverters().convert(map));
+    }
 }
@@ -20,4 +20,8 @@ class IndentTest {
     @Test void shouldIndent3() {
         assertEquals("      ", Indent.of(3));
     }
+
+    @Test void shouldIndentBeyondPrecomputed() {
+        assertEquals(" ".repeat(200), Indent.of(100));
+    }
 }
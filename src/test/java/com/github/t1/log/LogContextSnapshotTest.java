@@ -0,0 +1,182 @@
+package com.github.t1.log;
+
+import mock.logging.MockLoggerProvider;
+import mock.logging.MockMDC;
+import mock.logging.NoOpLogger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.slf4j.event.Level;
+import org.slf4j.helpers.BasicMDCAdapter;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogContextSnapshotTest {
+    private static final NoOpLogger LOG = new NoOpLogger(LogContextSnapshotTest.class.getName(), Level.DEBUG);
+
+    @SuppressWarnings("unused")
+    public static class Target {
+        @Logged
+        public LogContextSnapshot capture(@LogContext("user") String user) {return LogContextSnapshot.capture();}
+
+        @Logged
+        public String nested() {return MDC.get("indent");}
+    }
+
+    private final Target target = new Target();
+    private final LogPointCache logPoints = new LogPointCache();
+    private final LoggingInterceptor interceptor = new LoggingInterceptor(Collections.emptyList(), new Converters(),
+        logPoints, LogOptions.global());
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @BeforeEach void setUp() {
+        MockLoggerProvider.givenLogger(LOG);
+        MockMDC.use(new BasicMDCAdapter());
+    }
+
+    @AfterEach void tearDown() {
+        executor.shutdown();
+        MockMDC.useMock();
+    }
+
+    private LogContextSnapshot captureInLoggedCall(String user) throws Exception {
+        return (LogContextSnapshot) interceptor.aroundInvoke(new TestInvocationContext(target, "capture",
+            new Class<?>[]{String.class}, user));
+    }
+
+    private String nested() throws Exception {
+        return (String) interceptor.aroundInvoke(new TestInvocationContext(target, "nested", new Class<?>[0]));
+    }
+
+    @Test void shouldCaptureNothingOutsideOfLoggedCall() {
+        LogContextSnapshot snapshot = LogContextSnapshot.capture();
+
+        assertThat(snapshot.isEmpty()).isTrue();
+        Runnable task = () -> {};
+        assertThat(snapshot.wrap(task)).isSameAs(task);
+    }
+
+    @Test void shouldCaptureLogContextOfLoggedCall() throws Exception {
+        LogContextSnapshot snapshot = captureInLoggedCall("bob");
+
+        assertThat(snapshot.get("user")).isEqualTo("bob");
+        assertThat(snapshot.get("indent")).isEmpty();
+        assertThat(MDC.get("user")).isNull();
+    }
+
+    @Test void shouldInstallAndUninstallOnWorkerThread() throws Exception {
+        LogContextSnapshot snapshot = captureInLoggedCall("bob");
+
+        String user = executor.submit(snapshot.wrap((Callable<String>) () -> MDC.get("user"))).get();
+        String after = executor.submit(() -> MDC.get("user")).get();
+
+        assertThat(user).isEqualTo("bob");
+        assertThat(after).isNull();
+    }
+
+    @Test void shouldRestorePreviousValueOfWorkerThread() {
+        MDC.put("user", "alice");
+        try {
+            LogContextSnapshot snapshot = new LogContextSnapshot(new String[]{"user"}, new String[]{"bob"}, 0);
+
+            try (LogContextSnapshot.Scope ignored = snapshot.install()) {
+                assertThat(MDC.get("user")).isEqualTo("bob");
+            }
+
+            assertThat(MDC.get("user")).isEqualTo("alice");
+        } finally {
+            MDC.remove("user");
+        }
+    }
+
+    @Test void shouldContinueIndentOnWorkerThread() throws Exception {
+        LogContextSnapshot snapshot = captureInLoggedCall("bob");
+
+        String indent = executor.submit(snapshot.wrap((Callable<String>) this::nested)).get();
+
+        assertThat(indent).isEqualTo("  ");
+    }
+
+    @Test void shouldHandOffWithDecoratedExecutor() throws Exception {
+        ExecutorService decorated = LogContextSnapshot.decorate(executor);
+        LogContextSnapshot snapshot = captureInLoggedCall("bob");
+
+        String user;
+        try (LogContextSnapshot.Scope ignored = snapshot.install()) {
+            user = decorated.submit(() -> MDC.get("user")).get();
+        }
+
+        assertThat(user).isEqualTo("bob");
+    }
+
+    @Test void shouldProvideThreadContext() throws Exception {
+        LogContextProvider provider = new LogContextProvider();
+        LogContextSnapshot snapshot = captureInLoggedCall("bob");
+
+        String user;
+        try (LogContextSnapshot.Scope ignored = snapshot.install()) {
+            var context = provider.currentContext(Map.of());
+            user = executor.submit(() -> {
+                var restorer = context.begin();
+                try {
+                    return MDC.get("user");
+                } finally {
+                    restorer.endContext();
+                }
+            }).get();
+        }
+
+        assertThat(provider.getThreadContextType()).isEqualTo("LogContext");
+        assertThat(user).isEqualTo("bob");
+    }
+
+    @Test void shouldProvideClearedThreadContextOnDirtyWorkerThread() throws Exception {
+        LogContextProvider provider = new LogContextProvider(() -> logPoints);
+        captureInLoggedCall("bob");
+        executor.submit(() -> {
+            MDC.put("user", "left-over");
+            MDC.put("other", "unmanaged");
+        }).get();
+
+        var context = provider.clearedContext(Map.of());
+        String[] during = executor.submit(() -> {
+            var restorer = context.begin();
+            try {
+                return new String[]{MDC.get("user"), MDC.get("other"), nested()};
+            } finally {
+                restorer.endContext();
+            }
+        }).get();
+        String after = executor.submit(() -> MDC.get("user")).get();
+
+        assertThat(during).containsExactly(null, "unmanaged", "");
+        assertThat(after).isEqualTo("left-over");
+    }
+
+    @Test void shouldRegisterMdcKeysWithTheLogPoints() throws Exception {
+        captureInLoggedCall("bob");
+
+        assertThat(logPoints.mdcKeys()).contains("user", "indent").doesNotContain("other");
+        assertThat(new LogPointCache().mdcKeys()).isEmpty();
+    }
+
+    @Test void shouldNotClearAnythingWithoutContainer() throws Exception {
+        LogContextProvider provider = new LogContextProvider();
+        captureInLoggedCall("bob");
+        MDC.put("user", "left-over");
+
+        var restorer = provider.clearedContext(Map.of()).begin();
+        String during = MDC.get("user");
+        restorer.endContext();
+        MDC.remove("user");
+
+        assertThat(during).isEqualTo("left-over");
+    }
+}
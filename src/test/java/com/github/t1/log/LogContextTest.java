@@ -2,11 +2,11 @@ package com.github.t1.log;
 
 import jakarta.enterprise.context.Dependent;
 import jakarta.inject.Inject;
-import org.junit.jupiter.api.Disabled;
+import lombok.Value;
 import org.junit.jupiter.api.Test;
 import org.mockito.InOrder;
 
-import static mock.logging.MockLoggerProvider.array;
+import static com.github.t1.log.LogLevel.INFO;
 import static mock.logging.MockMDC.mdc;
 import static mock.logging.MockMDC.verifyMdc;
 import static org.mockito.Mockito.*;
@@ -22,6 +22,15 @@ class LogContextTest extends AbstractLoggingInterceptorTests {
         @Logged("[{two}]")
         @SuppressWarnings("unused")
         public void methodWithLogContextParameterNotInMessage(@LogContext String one, String two) {}
+
+        @Logged("customer {customer.id}")
+        @SuppressWarnings("unused")
+        public void methodWithLogContextParameterExpression(@LogContext Customer customer) {}
+    }
+
+    @Value
+    public static class Customer {
+        String id, name;
     }
 
     @Inject
@@ -31,15 +40,30 @@ class LogContextTest extends AbstractLoggingInterceptorTests {
         logContextParameterClass.methodWithLogContextParameter("foo", "bar");
 
         verifyMdc("var", "foo");
-        verify(log).debug("method with log context parameter {} {}", array("foo", "bar"));
+        verify(log).debug("method with log context parameter foo bar");
     }
 
-    @Disabled("not yet implemented")
     @Test void shouldSetLogContextParameterNotInMessage() {
         logContextParameterClass.methodWithLogContextParameterNotInMessage("foo", "bar");
 
         verifyMdc("one", "foo");
-        verify(log).debug("[{}]", "bar");
+        verify(log).debug("[bar]");
+    }
+
+    @Test void shouldSetLogContextParameterExpressionFromMessage() {
+        logContextParameterClass.methodWithLogContextParameterExpression(new Customer("1234", "Joe"));
+
+        verifyMdc("customer", "1234");
+        verify(log).debug("customer 1234");
+    }
+
+    @Test void shouldSetLogContextParameterWhenLevelIsDisabled() {
+        givenLogLevel(INFO);
+
+        logContextParameterClass.methodWithLogContextParameter("foo", "bar");
+
+        verifyMdc("var", "foo");
+        verify(log, never()).debug(anyString());
     }
 
     @Test void shouldNotSetNullMdcParameter() {
@@ -125,12 +149,48 @@ class LogContextTest extends AbstractLoggingInterceptorTests {
         verifyMdc("one", "foo");
     }
 
+    @Test void shouldLogContextFieldWhenLevelIsDisabled() {
+        givenLogLevel(INFO);
+
+        logContextFieldClass.methodWithLogContextField();
+
+        verifyMdc("one", "foo");
+    }
+
     @Test void shouldLogContextFieldArgument() {
         when(mdc().get("one")).thenReturn(null, "foo");
 
         logContextFieldClass.methodWithLogContextFieldInMessage();
 
         verifyMdc("one", "foo");
-        verify(log).debug("[{}]", array("foo"));
+        verify(log).debug("[foo]");
+    }
+
+    // ----------------------------------------------------------------------------------
+
+    public abstract static class LogContextFieldSuperClass {
+        @SuppressWarnings("unused")
+        @LogContext("inherited")
+        private String inheritedField = "bar";
+    }
+
+    @Dependent
+    public static class InheritedLogContextFieldClass extends LogContextFieldSuperClass {
+        @SuppressWarnings("unused")
+        @LogContext
+        private final int number = 42;
+
+        @Logged
+        public void methodWithInheritedLogContextField() {}
+    }
+
+    @Inject
+    InheritedLogContextFieldClass inheritedLogContextFieldClass;
+
+    @Test void shouldLogInheritedContextField() {
+        inheritedLogContextFieldClass.methodWithInheritedLogContextField();
+
+        verifyMdc("inherited", "bar");
+        verifyMdc("number", "42");
     }
 }
@@ -1,11 +1,25 @@
 package com.github.t1.log;
 
 import jakarta.enterprise.context.Dependent;
+import jakarta.enterprise.inject.Disposes;
 import jakarta.enterprise.inject.Produces;
 import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import mock.logging.MockMDC;
 import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.slf4j.helpers.BasicMDCAdapter;
 
+import static mock.logging.MockMDC.mdc;
 import static mock.logging.MockMDC.verifyMdc;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 
 class LogContextVariableProducerTest extends AbstractLoggingInterceptorTests {
     @Dependent
@@ -17,6 +31,28 @@ class LogContextVariableProducerTest extends AbstractLoggingInterceptorTests {
     @Inject
     SimpleClass simple;
 
+    @Dependent
+    public static class OuterClass {
+        @Inject
+        InnerClass inner;
+
+        @Logged
+        public String outerChangingMdc() {
+            MDC.remove("fooVar");
+            MDC.put("dynamicVar", "changed");
+            return inner.nested();
+        }
+    }
+
+    @Dependent
+    public static class InnerClass {
+        @Logged
+        public String nested() {return MDC.get("fooVar") + ":" + MDC.get("dynamicVar");}
+    }
+
+    @Inject
+    OuterClass outer;
+
     @Produces
     LogContextVariable fooBarVariable = new LogContextVariable("fooVar", "barVar");
 
@@ -34,4 +70,92 @@ class LogContextVariableProducerTest extends AbstractLoggingInterceptorTests {
 
         // verify not possible... just check that there's no exception
     }
+
+    static int constantProductions;
+
+    @Produces @Singleton
+    LogContextVariable constantVariable() {
+        constantProductions++;
+        return new LogContextVariable("constantVar", "constantValue");
+    }
+
+    @Test void shouldProduceConstantLogContextVariableOnlyOnce() {
+        constantProductions = 0;
+
+        simple.simple();
+        simple.simple();
+
+        assertThat(constantProductions).isEqualTo(1);
+        verify(mdc(), times(2)).put("constantVar", "constantValue");
+        verify(mdc(), times(2)).put("fooVar", "barVar");
+    }
+
+    static int dynamicProductions;
+
+    @Produces
+    LogContextVariable dynamicVariable() {
+        dynamicProductions++;
+        return new LogContextVariable("dynamicVar", "dynamicValue");
+    }
+
+    @Test void shouldProduceDynamicLogContextVariableForEveryCall() {
+        dynamicProductions = 0;
+
+        simple.simple();
+        simple.simple();
+
+        assertThat(dynamicProductions).isEqualTo(2);
+        verify(mdc(), times(2)).put("dynamicVar", "dynamicValue");
+    }
+
+    @Inject
+    LogPointCache logPoints;
+
+    @Test void shouldRegisterMdcKeysOfConstantAndDynamicProducers() {
+        simple.simple();
+
+        assertThat(logPoints.mdcKeys()).contains("constantVar", "dynamicVar", "indent");
+    }
+
+    static int disposals;
+
+    @Produces
+    LogContextVariable disposedVariable() {
+        return new LogContextVariable("disposedVar", "disposedValue");
+    }
+
+    void dispose(@Disposes LogContextVariable variable) {
+        if ("disposedVar".equals(variable.key()))
+            disposals++;
+    }
+
+    @Test void shouldReleaseDependentLogContextVariableAfterEveryCall() {
+        disposals = 0;
+
+        simple.simple();
+        simple.simple();
+
+        assertThat(disposals).isEqualTo(2);
+        verify(mdc(), times(2)).put("disposedVar", "disposedValue");
+    }
+
+    @Produces @Singleton
+    LogContextVariable noValueVariable() {
+        return new LogContextVariable("noValueVar", null);
+    }
+
+    @Test void shouldNeverPutNullValue() {
+        simple.simple();
+
+        verify(mdc(), never()).put(eq("noValueVar"), any());
+        verify(mdc(), never()).put(anyString(), isNull());
+    }
+
+    @Test void shouldSetLogContextVariablesAgainInNestedCallWhenOuterChangedMdc() {
+        MockMDC.use(new BasicMDCAdapter());
+
+        String nested = outer.outerChangingMdc();
+
+        assertThat(nested).isEqualTo("barVar:dynamicValue");
+    }
 }
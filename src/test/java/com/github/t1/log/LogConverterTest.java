@@ -6,13 +6,17 @@ import lombok.Value;
 import org.jboss.weld.junit5.auto.AddBeanClasses;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
+import static com.github.t1.log.JsonLogDetail.PARAMETERS;
+import static com.github.t1.log.LogConverterTest.CountingConverter;
+import static com.github.t1.log.LogConverterTest.ListConverter;
 import static com.github.t1.log.LogConverterTest.PojoConverter;
-import static mock.logging.MockLoggerProvider.array;
 import static mock.logging.MockMDC.verifyMdc;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.verify;
 
-@AddBeanClasses(PojoConverter.class)
+@AddBeanClasses({PojoConverter.class, ListConverter.class, CountingConverter.class})
 class LogConverterTest extends AbstractLoggingInterceptorTests {
     // ----------------------------------------------------------------------------------
 
@@ -30,6 +34,29 @@ class LogConverterTest extends AbstractLoggingInterceptorTests {
         }
     }
 
+    public static class ListConverter implements Converter {
+        @SuppressWarnings("unused")
+        public void convert(List<Pojo> list, StringBuilder out) {
+            for (Pojo pojo : list)
+                out.append(pojo.one).append('|');
+        }
+    }
+
+    @Value
+    public static class Counted {
+        String value;
+    }
+
+    public static class CountingConverter implements Converter {
+        static int calls;
+
+        @SuppressWarnings("unused")
+        public String convert(Counted counted) {
+            calls++;
+            return counted.value + "#" + calls;
+        }
+    }
+
     // ----------------------------------------------------------------------------------
 
     @Dependent
@@ -45,7 +72,7 @@ class LogConverterTest extends AbstractLoggingInterceptorTests {
     @Test void shouldConvertParameter() {
         pojoParam.pojoParamMethod(POJO);
 
-        verify(log).debug("pojo param method {}", array("foo#bar"));
+        verify(log).debug("pojo param method foo#bar");
     }
 
     // ----------------------------------------------------------------------------------
@@ -63,8 +90,7 @@ class LogConverterTest extends AbstractLoggingInterceptorTests {
     @Test void shouldConvertReturnValue() {
         pojoReturn.foo();
 
-        //noinspection RedundantArrayCreation
-        verify(log).debug("foo", new Object[0]); // consume for better mockito error messages
+        verify(log).debug("foo"); // consume for better mockito error messages
 
         String message = captureMessage();
 
@@ -87,4 +113,47 @@ class LogConverterTest extends AbstractLoggingInterceptorTests {
 
         verifyMdc("var", "foo#bar");
     }
+
+    // ----------------------------------------------------------------------------------
+    @Dependent
+    public static class ListParamClass {
+        @SuppressWarnings("unused")
+        @Logged
+        public List<Pojo> listParamMethod(@LogContext("var") List<Pojo> list) {
+            return list;
+        }
+    }
+
+    @Inject
+    ListParamClass listParam;
+
+    @Test void shouldAppendConvertedParameterAndReturnValue() {
+        listParam.listParamMethod(List.of(POJO, new Pojo("baz", "bar")));
+
+        verify(log).debug("list param method foo|baz|");
+        verifyMdc("var", "foo|baz|");
+        assertThat(captureMessage()).startsWith("return foo|baz| [time:");
+    }
+
+    // ----------------------------------------------------------------------------------
+    @Dependent
+    public static class CountedParamClass {
+        @SuppressWarnings("unused")
+        @Logged(value = "got {counted}", json = PARAMETERS)
+        public void foo(@LogContext("var") Counted counted) {}
+    }
+
+    @Inject
+    CountedParamClass countedParam;
+
+    @Test void shouldConvertParameterOnlyOncePerInvocation() {
+        CountingConverter.calls = 0;
+
+        countedParam.foo(new Counted("x"));
+
+        verify(log).debug("got x#1");
+        verifyMdc("var", "x#1");
+        verifyMdc("json", "\"counted\":\"x#1\"");
+        assertThat(CountingConverter.calls).isEqualTo(1);
+    }
 }
@@ -4,15 +4,14 @@ import jakarta.enterprise.context.Dependent;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
-import org.slf4j.Logger;
-
-import java.util.Arrays;
-import java.util.List;
 
 import static com.github.t1.log.LogLevel.*;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Fail.fail;
-import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.startsWith;
 import static org.mockito.Mockito.verify;
 
 @SuppressWarnings("WeakerAccess")
@@ -41,19 +40,18 @@ class LogExceptionTest extends AbstractLoggingInterceptorTests {
     ThrowingClass throwing;
 
     private void verifyFailureLogged(String exceptionName) {
-        List<Object> event = captureLogEvent(log, "failed with {} [time:{}]");
+        String message = captureFailureMessage();
 
-        assertThat(event.size()).isEqualTo(2);
-        assertThat(event.get(0)).isEqualTo(exceptionName);
-        assertThat((Long) event.get(1)).isBetween(0L, 20L);
+        assertThat(message).startsWith("failed with " + exceptionName + " [time:").endsWith("]");
+        String time = message.substring(message.lastIndexOf(":") + 1, message.length() - 1);
+        assertThat(Long.parseLong(time)).isBetween(0L, 20L);
     }
 
-    private List<Object> captureLogEvent(Logger log, @SuppressWarnings("SameParameterValue") String message) {
-        ArgumentCaptor<Object[]> captor = ArgumentCaptor.forClass(Object[].class);
-        verify(log).debug(eq(message), captor.capture());
-        List<Object[]> args = captor.getAllValues();
-        assertThat(args).hasSize(1);
-        return Arrays.asList(args.get(0));
+    private String captureFailureMessage() {
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+        verify(log).debug(startsWith("failed with "));
+        verify(log, atLeastOnce()).debug(captor.capture());
+        return captor.getValue();
     }
 
     @Test void shouldLogThrownExceptionWithoutMessage() {
@@ -62,7 +60,7 @@ class LogExceptionTest extends AbstractLoggingInterceptorTests {
             fail("expected RuntimeException");
         } catch (RuntimeException ignored) {}
 
-        verify(log).debug("throw runtime exception without message", NO_ARGS);
+        verify(log).debug("throw runtime exception without message");
         verifyFailureLogged("RuntimeException");
     }
 
@@ -72,7 +70,7 @@ class LogExceptionTest extends AbstractLoggingInterceptorTests {
             fail("expected RuntimeException");
         } catch (RuntimeException ignored) {}
 
-        verify(log).debug("throw runtime exception with message", NO_ARGS);
+        verify(log).debug("throw runtime exception with message");
         verifyFailureLogged("RuntimeException(bar)");
     }
 
@@ -82,7 +80,7 @@ class LogExceptionTest extends AbstractLoggingInterceptorTests {
             fail("expected RuntimeException");
         } catch (RuntimeException ignored) {}
 
-        verify(log).debug("throw runtime exception with causing npe", NO_ARGS);
+        verify(log).debug("throw runtime exception with causing npe");
         verifyFailureLogged("RuntimeException(foo) -> NullPointerException(bar)");
     }
 
@@ -92,12 +90,22 @@ class LogExceptionTest extends AbstractLoggingInterceptorTests {
             fail("expected RuntimeException");
         } catch (RuntimeException ignored) {}
 
-        verify(log).debug("throw runtime exception with causing illegal argument and causing npe", NO_ARGS);
+        verify(log).debug("throw runtime exception with causing illegal argument and causing npe");
         verifyFailureLogged("RuntimeException(foo)" //
                 + " -> IllegalArgumentException(bar)" //
                 + " -> NullPointerException(baz)");
     }
 
+    @Test void shouldNotLogThrownExceptionWhenLevelIsDisabled() {
+        givenLogLevel(INFO);
+        try {
+            throwing.throwRuntimeExceptionWithMessage();
+            fail("expected RuntimeException");
+        } catch (RuntimeException ignored) {}
+
+        verify(log, never()).debug(anyString());
+    }
+
     // ----------------------------------------------------------------------------------
 
     @SuppressWarnings("unused")
@@ -137,8 +145,7 @@ class LogExceptionTest extends AbstractLoggingInterceptorTests {
 
         throwableLogger.notThrowing(exception, "bar");
 
-        //noinspection RedundantArrayCreation
-        verify(log).debug("not throwing {} {}", new Object[]{exception, "bar"});
+        verify(log).debug("not throwing java.lang.IllegalArgumentException: foo bar");
     }
 
     // ----------------------------------------------------------------------------------
@@ -3,6 +3,9 @@ package com.github.t1.log;
 import jakarta.enterprise.context.Dependent;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.List;
 
 import static com.github.t1.log.LogLevel.INFO;
 import static mock.logging.MockMDC.mdc;
@@ -27,22 +30,66 @@ class LogIndentTest extends AbstractLoggingInterceptorTests {
         verifyMdc("indent", "");
     }
 
-    @Test void shouldIndentFrom0() {
-        when(mdc().get("indent")).thenReturn("");
+    @Dependent
+    public static class OuterClass {
+        @Inject
+        SimpleClass inner;
+
+        @Logged
+        public void bar() {inner.foo();}
+    }
+
+    @Inject
+    OuterClass outerClass;
 
+    @Test void shouldIndentNestedCall() {
+        outerClass.bar();
+
+        InOrder inOrder = inOrder(mdc());
+        inOrder.verify(mdc()).put("indent", "");
+        inOrder.verify(mdc()).put("indent", "  ");
+    }
+
+    @Test void shouldIndentAgainAfterNestedCall() {
+        outerClass.bar();
         simpleClass.foo();
 
+        verify(mdc(), times(2)).put("indent", "");
         verify(mdc()).put("indent", "  ");
-        verify(mdc()).put("indent", "");
     }
 
-    @Test void shouldIndentFrom1() {
-        when(mdc().get("indent")).thenReturn("  ");
+    @Test void shouldNotParseIndentFromMdc() {
+        when(mdc().get("indent")).thenReturn("    ");
 
         simpleClass.foo();
 
+        verify(mdc()).put("indent", "");
         verify(mdc()).put("indent", "    ");
-        verify(mdc()).put("indent", "  ");
+    }
+
+    /** Calls the interceptor directly, so it can have its own options */
+    public static class NumericDepthClass {
+        final LoggingInterceptor interceptor = new LoggingInterceptor(List.of(), new Converters(),
+            LogOptions.global().withNumericDepth(true));
+
+        @Logged
+        public void outer() throws Exception {
+            interceptor.aroundInvoke(new TestInvocationContext(this, "inner", new Class<?>[0]));
+        }
+
+        @Logged
+        public void inner() {}
+    }
+
+    @Test void shouldPutNumericDepth() throws Exception {
+        NumericDepthClass target = new NumericDepthClass();
+
+        target.interceptor.aroundInvoke(new TestInvocationContext(target, "outer", new Class<?>[0]));
+
+        InOrder inOrder = inOrder(mdc());
+        inOrder.verify(mdc()).put("depth", "0");
+        inOrder.verify(mdc()).put("depth", "1");
+        verify(mdc(), never()).put(eq("indent"), anyString());
     }
 
     @Test void shouldNotIndentWhenDisabled() {
@@ -1,18 +1,25 @@
 package com.github.t1.log;
 
 import jakarta.enterprise.context.Dependent;
+import jakarta.enterprise.inject.Produces;
 import jakarta.inject.Inject;
 import jakarta.json.Json;
 import jakarta.json.JsonObject;
 import lombok.Value;
+import mock.logging.MockMDC;
 import org.jboss.weld.junit5.auto.AddBeanClasses;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.slf4j.helpers.BasicMDCAdapter;
 
 import java.io.StringReader;
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.Arrays;
 
 import static com.github.t1.log.JsonLogDetail.*;
@@ -98,6 +105,27 @@ class LogJsonTest extends AbstractLoggingInterceptorTests {
         assertTrue(timestamp.isBefore(after));
     }
 
+    @Test void shouldFormatJsonTimestampLikeLocalDateTime() {
+        DateTimeFormatter format = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
+        for (long epochMillis : new long[]{0, 951_782_400_123L, 1_711_846_799_999L, 1_711_846_800_000L,
+            System.currentTimeMillis(), 4_102_444_799_009L}) {
+            StringBuilder out = new StringBuilder();
+
+            JsonLogArgument.appendTimestamp(out, epochMillis);
+
+            LocalDateTime expected = LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMillis), ZoneId.systemDefault());
+            assertEquals(format.format(expected), out.toString());
+        }
+    }
+
+    @Test void shouldNotLogJsonWhenLevelIsDisabled() {
+        givenLogLevel(LogLevel.INFO);
+
+        jsonLog.foo("baz");
+
+        verify(mdc(), never()).put(eq("json"), anyString());
+    }
+
     @Test void shouldLogJsonEvent() {
         jsonLog.foo();
 
@@ -278,6 +306,12 @@ class LogJsonTest extends AbstractLoggingInterceptorTests {
     @Dependent
     public static class JsonParamsLoggedClass {
         public void foo(String bar) {}
+
+        @Logged(value = "{0} {0}", json = PARAMETERS)
+        public void repeated(String bar) {}
+
+        @Logged(value = "{pojo.one} {pojo.two}", json = PARAMETERS)
+        public void expressions(Pojo pojo) {}
     }
 
     @Inject
@@ -299,6 +333,40 @@ class LogJsonTest extends AbstractLoggingInterceptorTests {
         assertNull(json.get("level"));
     }
 
+    @Test void shouldLogRepeatedJsonParameterOnlyOnce() {
+        jsonParamsLog.repeated("baz");
+
+        assertEquals("\"bar\":\"baz\"", captureMdc("json"));
+    }
+
+    @Test void shouldLogJsonParameterWithSeveralExpressionsOnlyOnce() {
+        jsonParamsLog.expressions(new Pojo("1", "2"));
+
+        assertEquals("\"pojo\":\"2\"", captureMdc("json"));
+    }
+
+    @Dependent
+    public static class JsonLogContextParameterClass {
+        @Logged(json = CONTEXT)
+        public String foo(@LogContext("cust") String cust) {return MDC.get("json");}
+    }
+
+    @Inject
+    JsonLogContextParameterClass jsonLogContextParameter;
+
+    @Produces
+    LogContextVariable jsonVariable = new LogContextVariable("jsonVar", "jsonValue");
+
+    @Test void shouldLogJsonContextSetByTheSameCall() {
+        MockMDC.use(new BasicMDCAdapter());
+
+        String json = jsonLogContextParameter.foo("c1");
+
+        JsonObject object = Json.createReader(new StringReader("{" + json + "}")).readObject();
+        assertEquals("c1", object.getString("cust"));
+        assertEquals("jsonValue", object.getString("jsonVar"));
+    }
+
     @Logged(json = CONTEXT)
     @SuppressWarnings("unused")
     @Dependent
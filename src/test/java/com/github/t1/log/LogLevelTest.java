@@ -59,7 +59,7 @@ class LogLevelTest extends AbstractLoggingInterceptorTests {
         traceClass.foo();
 
         verify(log, atLeast(0)).isTraceEnabled();
-        verify(log).trace("foo", NO_ARGS);
+        verify(log).trace("foo");
         verifyNoMoreInteractions(log);
     }
 
@@ -89,7 +89,7 @@ class LogLevelTest extends AbstractLoggingInterceptorTests {
         debugClass.foo();
 
         verify(log, atLeast(0)).isDebugEnabled();
-        verify(log).debug("foo", NO_ARGS);
+        verify(log).debug("foo");
         verifyNoMoreInteractions(log);
     }
 
@@ -119,7 +119,7 @@ class LogLevelTest extends AbstractLoggingInterceptorTests {
         infoClass.foo();
 
         verify(log, atLeast(0)).isInfoEnabled();
-        verify(log).info("foo", NO_ARGS);
+        verify(log).info("foo");
         verifyNoMoreInteractions(log);
     }
 
@@ -149,7 +149,7 @@ class LogLevelTest extends AbstractLoggingInterceptorTests {
         warnClass.foo();
 
         verify(log, atLeast(0)).isWarnEnabled();
-        verify(log).warn("foo", NO_ARGS);
+        verify(log).warn("foo");
         verifyNoMoreInteractions(log);
     }
 
@@ -179,7 +179,7 @@ class LogLevelTest extends AbstractLoggingInterceptorTests {
         errorClass.foo();
 
         verify(log, atLeast(0)).isErrorEnabled();
-        verify(log).error("foo", NO_ARGS);
+        verify(log).error("foo");
         verifyNoMoreInteractions(log);
     }
 
@@ -209,7 +209,7 @@ class LogLevelTest extends AbstractLoggingInterceptorTests {
 
         inheritLogLevelClass.foo();
 
-        verify(log).info("foo", NO_ARGS);
+        verify(log).info("foo");
     }
 
     // ----------------------------------------------------------------------------------
@@ -229,6 +229,6 @@ class LogLevelTest extends AbstractLoggingInterceptorTests {
 
         inheritLogLevelFromEnclosingClassClass.foo();
 
-        verify(log).warn("foo", NO_ARGS);
+        verify(log).warn("foo");
     }
 }
@@ -27,7 +27,7 @@ class LogLoggerTest extends AbstractLoggingInterceptorTests {
 
         implicitLoggerClass.foo();
 
-        verify(logger).debug("foo", NO_ARGS);
+        verify(logger).debug("foo");
     }
 
     // ----------------------------------------------------------------------------------
@@ -46,7 +46,7 @@ class LogLoggerTest extends AbstractLoggingInterceptorTests {
 
         explicitLoggerClass.foo();
 
-        verify(logger).debug("foo", NO_ARGS);
+        verify(logger).debug("foo");
     }
 
     // ----------------------------------------------------------------------------------
@@ -65,7 +65,7 @@ class LogLoggerTest extends AbstractLoggingInterceptorTests {
 
         explicitSelfLogger.foo();
 
-        verify(logger).debug("foo", NO_ARGS);
+        verify(logger).debug("foo");
     }
 
     // ----------------------------------------------------------------------------------
@@ -87,7 +87,7 @@ class LogLoggerTest extends AbstractLoggingInterceptorTests {
 
         nested.explicit();
 
-        verify(logger).debug("explicit", NO_ARGS);
+        verify(logger).debug("explicit");
     }
 
     @Test void shouldDefaultToContainerOfNestedLoggerClass() {
@@ -95,7 +95,7 @@ class LogLoggerTest extends AbstractLoggingInterceptorTests {
 
         nested.implicit();
 
-        verify(logger).debug("implicit", NO_ARGS);
+        verify(logger).debug("implicit");
     }
 
     // ----------------------------------------------------------------------------------
@@ -117,7 +117,7 @@ class LogLoggerTest extends AbstractLoggingInterceptorTests {
 
         inner.foo();
 
-        verify(logger).debug("foo", NO_ARGS);
+        verify(logger).debug("foo");
     }
 
     // ----------------------------------------------------------------------------------
@@ -136,7 +136,7 @@ class LogLoggerTest extends AbstractLoggingInterceptorTests {
 
         dollarLoggerClass.foo();
 
-        verify(logger).debug("foo", NO_ARGS);
+        verify(logger).debug("foo");
     }
 
     // ----------------------------------------------------------------------------------
@@ -156,7 +156,7 @@ class LogLoggerTest extends AbstractLoggingInterceptorTests {
 
         stringLoggerNameClass.foo();
 
-        verify(logger).debug("foo", NO_ARGS);
+        verify(logger).debug("foo");
     }
 
     // ----------------------------------------------------------------------------------
@@ -181,11 +181,11 @@ class LogLoggerTest extends AbstractLoggingInterceptorTests {
 
         subLoggedClass.foo();
 
-        verify(logger, never()).debug("foo", NO_ARGS);
+        verify(logger, never()).debug("foo");
 
         subLoggedClass.bar();
 
-        verify(logger).debug("bar", NO_ARGS);
+        verify(logger).debug("bar");
     }
 }
 
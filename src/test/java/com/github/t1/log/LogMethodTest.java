@@ -4,13 +4,16 @@ import jakarta.enterprise.context.Dependent;
 import jakarta.inject.Inject;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
 import static com.github.t1.log.LogLevel.INFO;
-import static mock.logging.MockLoggerProvider.array;
+import static java.util.concurrent.TimeUnit.MICROSECONDS;
+import static mock.logging.MockMDC.mdc;
 import static mock.logging.MockMDC.verifyMdc;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.BDDAssertions.then;
-import static org.junit.jupiter.api.Assertions.assertFalse;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 
 @SuppressWarnings("WeakerAccess")
@@ -39,12 +42,15 @@ class LogMethodTest extends AbstractLoggingInterceptorTests {
 
         simpleClass.foo();
 
-        verify(log).info("foo", NO_ARGS);
+        verify(log).info("foo");
     }
 
+    @Inject
+    LogPointCache cache;
+
     @Test void shouldCacheLogPoint() {
         givenLogLevel(INFO);
-        assertTrue(LoggingInterceptor.CACHE.isEmpty());
+        assertEquals(0, cache.size());
 
         // the timing stuff is not very robust... but sometimes helpful ;)
         // long t0 = System.nanoTime();
@@ -56,9 +62,12 @@ class LogMethodTest extends AbstractLoggingInterceptorTests {
         // long d0 = t1 - t0;
         // long d1 = t2 - t1;
 
-        verify(log, times(2)).info("foo", NO_ARGS); // actually did log twice
+        verify(log, times(2)).info("foo"); // actually did log twice
         // assertTrue("expected second (cached) call must be faster, but actually " + d0 + " <= " + d1, d0 > d1);
-        assertFalse(LoggingInterceptor.CACHE.isEmpty());
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.misses());
+        assertEquals(1, cache.hits());
+        assertEquals(0.5, cache.hitRate());
     }
 
     // ----------------------------------------------------------------------------------
@@ -74,7 +83,7 @@ class LogMethodTest extends AbstractLoggingInterceptorTests {
     @Test void shouldConvertCamelCaseToSpaces() {
         camelCaseClass.camelCaseMethod();
 
-        verify(log).debug("camel case method", NO_ARGS);
+        verify(log).debug("camel case method");
     }
 
     // ----------------------------------------------------------------------------------
@@ -92,7 +101,7 @@ class LogMethodTest extends AbstractLoggingInterceptorTests {
     @Test void shouldLogExplicitMessage() {
         logMessageClass.foo();
 
-        verify(log).debug("log message", NO_ARGS);
+        verify(log).debug("log message");
     }
 
     @Test void shouldNotLogEmptyMessage() {
@@ -116,7 +125,7 @@ class LogMethodTest extends AbstractLoggingInterceptorTests {
         returnVoidClass.foo();
 
         verify(log, atLeast(0)).isDebugEnabled();
-        verify(log).debug("foo", NO_ARGS);
+        verify(log).debug("foo");
         verifyNoMoreInteractions(log);
     }
 
@@ -169,6 +178,15 @@ class LogMethodTest extends AbstractLoggingInterceptorTests {
         verifyMdc("time", time);
     }
 
+    @Test void shouldNotLogReturnValueWhenLevelIsDisabled() {
+        givenLogLevel(INFO);
+
+        returnFormatClass.foo("bar");
+
+        verify(log, never()).debug(anyString());
+        verify(mdc(), never()).put(eq("time"), anyString());
+    }
+
     @Test void shouldFormatNullReturnValue() {
         returnFormatClass.foo(null);
 
@@ -181,10 +199,51 @@ class LogMethodTest extends AbstractLoggingInterceptorTests {
         var baz = returnFormatClass.bar("baz");
 
         then(baz).isEqualTo("baz");
-        verify(log).debug("bar {}", array("baz"));
+        verify(log).debug("bar baz");
         verify(log, atLeast(0)).isDebugEnabled();
         verifyNoMoreInteractions(log);
     }
 
+    // ----------------------------------------------------------------------------------
+
+    public static class TimeClass {
+        @Logged(returnFormat = "{time} {timeMicros} {timeNanos}")
+        public String millis() {return "";}
+
+        @Logged(returnFormat = "{time}", timeUnit = MICROSECONDS)
+        public String micros() {return "";}
+    }
+
+    private final TimeClass timeClass = new TimeClass();
+    private LoggingInterceptor timedInterceptor;
+
+    private void givenEveryInvocationTakes(long nanos) {
+        AtomicLong ticks = new AtomicLong();
+        NanoClock clock = () -> ticks.addAndGet(nanos);
+        timedInterceptor = new LoggingInterceptor(List.of(), new Converters(), LogOptions.global().withClock(clock));
+    }
+
+    private void callTimed(String methodName) throws Exception {
+        timedInterceptor.aroundInvoke(new TestInvocationContext(timeClass, methodName, new Class<?>[0]));
+    }
+
+    @Test void shouldLogTimeInUnits() throws Exception {
+        givenEveryInvocationTakes(1_234_567);
+
+        callTimed("millis");
+
+        assertThat(captureMessage()).isEqualTo("1 1234 1234567");
+        verifyMdc("time", "1");
+    }
+
+    @Test void shouldLogTimeInConfiguredUnit() throws Exception {
+        givenEveryInvocationTakes(1_234_567);
+
+        callTimed("micros");
+
+        assertThat(captureMessage()).isEqualTo("1234");
+        verifyMdc("time", "1234");
+    }
+
     // TODO inherit returnFormat from class/package
 }
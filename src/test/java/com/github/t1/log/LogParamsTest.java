@@ -4,9 +4,18 @@ import jakarta.enterprise.context.Dependent;
 import jakarta.inject.Inject;
 import lombok.Value;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
-import static mock.logging.MockLoggerProvider.array;
 import static mock.logging.MockMDC.givenMdc;
+import static mock.logging.MockMDC.verifyMdc;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
 
 class LogParamsTest extends AbstractLoggingInterceptorTests {
@@ -25,7 +34,14 @@ class LogParamsTest extends AbstractLoggingInterceptorTests {
     @Test void shouldLogBooleanParam() {
         booleanParamClass.foo(true);
 
-        verify(log).debug("foo {}", array(true));
+        verify(log).debug("foo true");
+    }
+
+    @Test void shouldRemoveThreadLocalsAfterOutermostCall() {
+        booleanParamClass.foo(true);
+
+        assertThat(ArgumentSnapshot.isIdle()).isTrue();
+        assertThat(RestorableMdc.isIdle()).isTrue();
     }
 
     // ----------------------------------------------------------------------------------
@@ -43,7 +59,7 @@ class LogParamsTest extends AbstractLoggingInterceptorTests {
     @Test void shouldLogIntParam() {
         intParamClass.foo(3);
 
-        verify(log).debug("foo {}", array(3));
+        verify(log).debug("foo 3");
     }
 
     // ----------------------------------------------------------------------------------
@@ -61,7 +77,7 @@ class LogParamsTest extends AbstractLoggingInterceptorTests {
     @Test void shouldLogIntegerParam() {
         integerParamClass.foo(3);
 
-        verify(log).debug("foo {}", array(3));
+        verify(log).debug("foo 3");
     }
 
     // ----------------------------------------------------------------------------------
@@ -79,7 +95,7 @@ class LogParamsTest extends AbstractLoggingInterceptorTests {
     @Test void shouldLogStringParam() {
         stringParamClass.foo("bar");
 
-        verify(log).debug("foo {}", array("bar"));
+        verify(log).debug("foo bar");
     }
 
     // ----------------------------------------------------------------------------------
@@ -97,7 +113,7 @@ class LogParamsTest extends AbstractLoggingInterceptorTests {
     @Test void shouldNotLogArgumentsAnnotatedAsDontLog() {
         dontLogClass.foo("foo", "bar");
 
-        verify(log).debug("foo {}", array("bar"));
+        verify(log).debug("foo bar");
     }
 
     // ----------------------------------------------------------------------------------
@@ -115,7 +131,7 @@ class LogParamsTest extends AbstractLoggingInterceptorTests {
     @Test void shouldLogTwoParameters() {
         twoParamsClass.foo("foo", "bar");
 
-        verify(log).debug("foo {} {}", array("foo", "bar"));
+        verify(log).debug("foo foo bar");
     }
 
     // ----------------------------------------------------------------------------------
@@ -157,43 +173,43 @@ class LogParamsTest extends AbstractLoggingInterceptorTests {
     @Test void shouldLogArgumentsWithIndex() {
         paramsWithIndex.withIndex("foo", "bar");
 
-        verify(log).debug("one={}, two={}", array("foo", "bar"));
+        verify(log).debug("one=foo, two=bar");
     }
 
     @Test void shouldLogArgumentsWithInvertedIndex() {
         paramsWithIndex.withInvertedIndex("foo", "bar");
 
-        verify(log).debug("two={}, one={}", array("bar", "foo"));
+        verify(log).debug("two=bar, one=foo");
     }
 
     @Test void shouldLogArgumentsWithRepeatedIndex() {
         paramsWithIndex.withRepeatedIndex("foo", "bar");
 
-        verify(log).debug("one={}, again={}", array("foo", "foo"));
+        verify(log).debug("one=foo, again=foo");
     }
 
     @Test void shouldFailToLogArgumentsWithInvalidIndex() {
         paramsWithIndex.withInvalidIndex("foo", "bar");
 
-        verify(log).debug("one={}", array("invalid log parameter index: 2"));
+        verify(log).debug("one=invalid log parameter index: 2");
     }
 
     @Test void shouldFailToLogArgumentsWithNegativeIndex() {
         paramsWithIndex.withNegativeIndex("foo");
 
-        verify(log).debug("one={}", array("invalid log parameter index: -1"));
+        verify(log).debug("one=invalid log parameter index: -1");
     }
 
     @Test void shouldLogMixedParameters() {
         paramsWithIndex.withMixedIndex("foo", "bar");
 
-        verify(log).debug("one={}, two={}", array("foo", "bar"));
+        verify(log).debug("one=foo, two=bar");
     }
 
     @Test void shouldLogMixedParameters2() {
         paramsWithIndex.withMixedIndex2("foo", "bar");
 
-        verify(log).debug("one={}, again={}, two={}", array("foo", "foo", "bar"));
+        verify(log).debug("one=foo, again=foo, two=bar");
     }
 
     // ----------------------------------------------------------------------------------
@@ -236,38 +252,37 @@ class LogParamsTest extends AbstractLoggingInterceptorTests {
     @Test void shouldNotLogArgumentsWithInvalidNameWhenNotAnMdc() {
         paramsWithName.withInvalidName("foo");
 
-        verify(log).debug("one={}",
-                array("unset mdc log parameter reference (and not a parameter name): invalid"));
+        verify(log).debug("one=unset mdc log parameter reference (and not a parameter name): invalid");
     }
 
     @Test void shouldLogArgumentsWithValidName() {
         paramsWithName.withValidName("foo");
 
-        verify(log).debug("one={}", array("foo"));
+        verify(log).debug("one=foo");
     }
 
     @Test void shouldLogWithProperty() {
         paramsWithName.withProperty(new Pojo("foo", "bar"));
 
-        verify(log).debug(".one={}", array("foo"));
+        verify(log).debug(".one=foo");
     }
 
     @Test void shouldLogIndexedWithProperty() {
         paramsWithName.indexedWithProperty(new Pojo("foo", "bar"));
 
-        verify(log).debug("0.one={}", array("foo"));
+        verify(log).debug("0.one=foo");
     }
 
     @Test void shouldLogNamedWithProperty() {
         paramsWithName.namedWithProperty(new Pojo("foo", "bar"));
 
-        verify(log).debug("p.one={}", array("foo"));
+        verify(log).debug("p.one=foo");
     }
 
     @Test void shouldLogWrappedProperty() {
         paramsWithName.wrappedWithProperty(new Wrapper(new Pojo("foo", "bar")));
 
-        verify(log).debug("wrapper.pojo.two={}", array("bar"));
+        verify(log).debug("wrapper.pojo.two=bar");
     }
 
     // ----------------------------------------------------------------------------------
@@ -290,7 +305,7 @@ class LogParamsTest extends AbstractLoggingInterceptorTests {
 
         paramsWithMdcName.withMdcName("foo");
 
-        verify(log).debug("one={} mdc={}", array("foo", "mdc-value"));
+        verify(log).debug("one=foo mdc=mdc-value");
     }
 
     @Test void shouldNotLogMdcParameterWithExpression() {
@@ -298,7 +313,112 @@ class LogParamsTest extends AbstractLoggingInterceptorTests {
 
         paramsWithMdcName.withMdcNameAndExpression();
 
-        verify(log).debug("mdc={}",
-                array("invalid log parameter expression [invalid] for reference [mdc-key]"));
+        verify(log).debug("mdc=invalid log parameter expression [invalid] for reference [mdc-key]");
+    }
+
+    // ----------------------------------------------------------------------------------
+
+    @SuppressWarnings("unused")
+    @Dependent
+    public static class LimitedClass {
+        @Logged(limits = @LogLimits(maxLength = 12, maxElements = 2))
+        public List<String> foo(String string, List<Integer> list) {
+            return List.of(string, string);
+        }
+
+        @Logged(limits = @LogLimits(maxLength = 12), json = JsonLogDetail.PARAMETERS)
+        public void context(@LogContext("ctx") String string) {}
+
+        @Logged(limits = @LogLimits(maxElements = -2))
+        public void negative(List<Integer> list) {}
+    }
+
+    @Inject
+    LimitedClass limitedClass;
+
+    @Test void shouldLimitParametersAndReturnValue() {
+        limitedClass.foo("a".repeat(100_000), List.of(1, 2, 3));
+
+        verify(log).debug("foo aaaaaaaaaaaa... [1, 2, ...]");
+        assertThat(captureMessage()).startsWith("return [aaaaaaaaaaa... [time:");
+    }
+
+    @Test void shouldLimitLogContextAndJsonParameters() {
+        limitedClass.context("a\"".repeat(100_000));
+
+        verifyMdc("ctx", "a\"".repeat(6) + "...");
+        verifyMdc("json", "\"string\":\"" + "a\\\"".repeat(6) + "...\"");
+    }
+
+    @Test void shouldRejectNegativeLimit() throws Exception {
+        Method method = LimitedClass.class.getMethod("negative", List.class);
+
+        Throwable thrown = catchThrowable(() -> LoggingInterceptor.buildLogPoint(method,
+            LogContextVariables.of(List.of()), new Converters(), LogOptions.global()));
+
+        assertThat(thrown).hasRootCauseInstanceOf(IllegalArgumentException.class)
+            .hasRootCauseMessage("invalid @LogLimits maxElements: -2; must not be negative, or -1 for the global limit");
+    }
+
+    // ----------------------------------------------------------------------------------
+
+    @SuppressWarnings("unused")
+    @Dependent
+    public static class LazyClass {
+        @Logged(lazy = true)
+        public void foo(String one, Supplier<String> two) {}
+
+        @Logged(lazy = true)
+        public void bar(Supplier<String> value) {}
+
+        @Logged
+        public void eager(Supplier<String> value) {}
+
+        @Logged(lazy = true)
+        public void context(@LogContext("sup") Supplier<String> value) {}
+    }
+
+    @Inject
+    LazyClass lazyClass;
+
+    @Test void shouldPassLazyArguments() {
+        AtomicInteger calls = new AtomicInteger();
+
+        lazyClass.foo("a", () -> "b" + calls.incrementAndGet());
+
+        ArgumentCaptor<Object[]> arguments = ArgumentCaptor.forClass(Object[].class);
+        verify(log).debug(eq("foo {} {}"), arguments.capture());
+        assertThat(calls).hasValue(0);
+        assertThat(arguments.getValue()).extracting(Object::toString).containsExactly("a", "b1");
+        assertThat(arguments.getValue()[1]).hasToString("b1");
+        assertThat(calls).hasValue(1);
+    }
+
+    @Test void shouldLogSuppliedValue() {
+        lazyClass.bar(() -> "b");
+
+        ArgumentCaptor<Object[]> arguments = ArgumentCaptor.forClass(Object[].class);
+        verify(log).debug(eq("bar {}"), arguments.capture());
+        assertThat(arguments.getValue()[0]).hasToString("b");
+    }
+
+    @Test void shouldNotCallEagerSupplier() {
+        AtomicInteger calls = new AtomicInteger();
+
+        lazyClass.eager(() -> "b" + calls.incrementAndGet());
+
+        assertThat(captureMessage()).startsWith("eager ");
+        assertThat(calls).hasValue(0);
+    }
+
+    @Test void shouldReuseLogContextValueForLazyArgument() {
+        AtomicInteger calls = new AtomicInteger();
+
+        lazyClass.context(() -> "b" + calls.incrementAndGet());
+
+        ArgumentCaptor<Object[]> arguments = ArgumentCaptor.forClass(Object[].class);
+        verify(log).debug(eq("context {}"), arguments.capture());
+        assertThat(arguments.getValue()[0]).hasToString("b1");
+        assertThat(calls).hasValue(1);
     }
 }
@@ -0,0 +1,92 @@
+package com.github.t1.log;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogPointCacheTest {
+    private final LogPointCache cache = new LogPointCache();
+    private final AtomicInteger builds = new AtomicInteger();
+
+    @SuppressWarnings("unused")
+    public static class Target {
+        public void foo() {}
+
+        public void bar() {}
+    }
+
+    private static Method method(String name) throws NoSuchMethodException {
+        return Target.class.getMethod(name);
+    }
+
+    private LogPoint build(Method method) {
+        builds.incrementAndGet();
+        return new LogPoint.NullLogPoint(new LogPointContext(LogContextVariables.of(List.of()), new Converters(),
+            LogOptions.global()));
+    }
+
+    @Test void shouldBuildOnlyOnceWhenCalledConcurrently() throws Exception {
+        Method method = method("foo");
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<LogPoint>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++)
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return cache.computeIfAbsent(method, this::build);
+                }));
+            start.countDown();
+
+            LogPoint first = futures.get(0).get();
+            for (Future<LogPoint> future : futures)
+                assertThat(future.get()).isSameAs(first);
+        } finally {
+            executor.shutdown();
+        }
+        assertThat(builds).hasValue(1);
+        assertThat(cache.misses()).isEqualTo(1);
+    }
+
+    @Test void shouldReportSizeAndHitRate() throws Exception {
+        assertThat(cache.get(method("foo"))).isNull();
+        cache.computeIfAbsent(method("foo"), this::build);
+        cache.computeIfAbsent(method("bar"), this::build);
+        cache.get(method("foo"));
+        cache.get(method("foo"));
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.hits()).isEqualTo(2);
+        assertThat(cache.misses()).isEqualTo(2);
+        assertThat(cache.hitRate()).isEqualTo(0.5);
+    }
+
+    @Test void shouldClear() throws Exception {
+        cache.computeIfAbsent(method("foo"), this::build);
+        cache.get(method("foo"));
+
+        cache.clear();
+
+        assertThat(cache.size()).isZero();
+        assertThat(cache.hits()).isZero();
+        assertThat(cache.get(method("foo"))).isNull();
+    }
+
+    @Test void shouldKeepCachesSeparate() throws Exception {
+        LogPointCache other = new LogPointCache();
+        cache.computeIfAbsent(method("foo"), this::build);
+
+        assertThat(other.get(method("foo"))).isNull();
+        assertThat(other.size()).isZero();
+    }
+}
@@ -0,0 +1,101 @@
+package com.github.t1.log;
+
+import jakarta.enterprise.context.Dependent;
+import jakarta.enterprise.inject.Stereotype;
+import jakarta.inject.Inject;
+import org.jboss.weld.junit5.auto.AddExtensions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+import java.lang.reflect.Method;
+import java.util.List;
+import java.util.Set;
+
+import static java.lang.annotation.ElementType.TYPE;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@AddExtensions(LogPointPrecompiler.class)
+class LogPointPrecompilerTest extends AbstractLoggingInterceptorTests {
+    @Dependent
+    public static class PrecompiledClass {
+        @Logged public void foo() {}
+
+        public void notLogged() {}
+    }
+
+    @Stereotype
+    @Logged
+    @Retention(RUNTIME)
+    @Target(TYPE)
+    public @interface LoggedStereotype {}
+
+    @Dependent
+    @LoggedStereotype
+    public static class StereotypedClass {
+        public void bar() {}
+    }
+
+    public static class UnresolvableType {}
+
+    @Dependent
+    public static class UnresolvableParameterClass {
+        @Logged public void foo(UnresolvableType unresolvable) {}
+
+        @Logged public void bar(String resolvable) {}
+    }
+
+    /** Fails like the JVM does for a type that is missing at deployment time */
+    private static class UnresolvableConverters extends Converters {
+        @Override public void prewarm(Class<?> type) {
+            if (type == UnresolvableType.class)
+                throw new NoClassDefFoundError("com/github/t1/log/UnresolvableType");
+            super.prewarm(type);
+        }
+    }
+
+    @Inject
+    PrecompiledClass precompiled;
+    @Inject
+    StereotypedClass stereotyped;
+    @Inject
+    LogPointCache cache;
+
+    @Test void shouldPrecompileLogPoints() throws Exception {
+        assertThat(cache.get(PrecompiledClass.class.getMethod("foo"))).isNotNull();
+        assertThat(cache.get(PrecompiledClass.class.getMethod("notLogged"))).isNull();
+        assertThat(cache.get(StereotypedClass.class.getMethod("bar"))).isNotNull();
+    }
+
+    @Test void shouldUsePrecompiledLogPoint() {
+        long misses = cache.misses();
+
+        precompiled.foo();
+
+        verify(log).debug("foo");
+        assertThat(cache.misses()).isEqualTo(misses);
+    }
+
+    @Test void shouldSkipLogPointWithUnresolvableParameterType() throws Exception {
+        Method unresolvable = UnresolvableParameterClass.class.getMethod("foo", UnresolvableType.class);
+        Method resolvable = UnresolvableParameterClass.class.getMethod("bar", String.class);
+        LogPointCache logPoints = new LogPointCache();
+
+        LogPointPrecompiler.precompile(Set.of(unresolvable, resolvable), logPoints, LogContextVariables.of(List.of()),
+            new UnresolvableConverters());
+
+        assertThat(logPoints.get(unresolvable)).isNull();
+        assertThat(logPoints.get(resolvable)).isNotNull();
+        Logger precompilerLog = LoggerFactory.getLogger(LogPointPrecompiler.class);
+        verify(precompilerLog).debug(anyString(), eq(unresolvable), any(NoClassDefFoundError.class));
+        verify(precompilerLog, never()).warn(anyString(), any(Throwable.class));
+    }
+}
@@ -0,0 +1,132 @@
+package com.github.t1.log;
+
+import mock.logging.ArrayMdcAdapter;
+import mock.logging.MockLoggerProvider;
+import mock.logging.MockMDC;
+import mock.logging.NoOpLogger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+import org.slf4j.event.Level;
+
+import java.util.Collections;
+import java.util.List;
+
+import static com.github.t1.log.LogLevel.INFO;
+import static com.github.t1.log.LogLevel.TRACE;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LogPointSpecializerTest {
+    private static final LogOptions SPECIALIZED = LogOptions.global().withSpecialized(true);
+
+    /** Remembers the MDC at the time of the last message */
+    private static class MdcLogger extends NoOpLogger {
+        private String user;
+
+        MdcLogger() {super(LogPointSpecializerTest.class.getName(), Level.DEBUG);}
+
+        @Override
+        protected void handleNormalizedLoggingCall(Level level, Marker marker, String messagePattern,
+            Object[] arguments, Throwable throwable) {
+            super.handleNormalizedLoggingCall(level, marker, messagePattern, arguments, throwable);
+            user = MDC.get("user");
+        }
+    }
+
+    @SuppressWarnings("unused")
+    public static class Target {
+        @Logged("greet {} {}")
+        public void greet(String name, int times) {}
+
+        @Logged(level = INFO)
+        public void greetUser(@LogContext("user") String user, String name) {}
+
+        @Logged(level = TRACE)
+        public void greetFinely(String name) {}
+
+        @Logged(lazy = true)
+        public void greetLazily(String name) {}
+
+        @Logged("greet {}")
+        public void greetLimited(List<Integer> numbers) {}
+    }
+
+    private final MdcLogger log = new MdcLogger();
+    private final Target target = new Target();
+    private LoggingInterceptor interceptor;
+
+    @BeforeEach void setUp() {
+        interceptor = new LoggingInterceptor(Collections.emptyList(), new Converters(), SPECIALIZED);
+        MockLoggerProvider.givenLogger(log);
+        MockMDC.use(new ArrayMdcAdapter());
+    }
+
+    @AfterEach void tearDown() {
+        MockMDC.useMock();
+    }
+
+    private LogPoint logPoint(String methodName, Class<?>... parameterTypes) throws Exception {
+        return logPoint(SPECIALIZED, methodName, parameterTypes);
+    }
+
+    private LogPoint logPoint(LogOptions options, String methodName, Class<?>... parameterTypes) throws Exception {
+        return LoggingInterceptor.buildLogPoint(Target.class.getMethod(methodName, parameterTypes),
+            LogContextVariables.of(Collections.emptyList()), new Converters(), options);
+    }
+
+    @Test void shouldGenerateHiddenClass() throws Exception {
+        LogPoint logPoint = logPoint("greet", String.class, int.class);
+
+        assertThat(logPoint.getClass().isHidden()).isTrue();
+        assertThat(logPoint.getClass().getSuperclass()).isEqualTo(LogPoint.class);
+    }
+
+    @Test void shouldNotGenerateWhenDisabled() throws Exception {
+        assertThat(logPoint(SPECIALIZED.withSpecialized(false), "greet", String.class, int.class))
+            .isInstanceOf(LogPoint.StandardLogPoint.class);
+    }
+
+    @Test void shouldNotGenerateLazyLogPoint() throws Exception {
+        assertThat(logPoint("greetLazily", String.class)).isInstanceOf(LogPoint.LazyLogPoint.class);
+    }
+
+    @Test void shouldLogMessage() throws Exception {
+        interceptor.aroundInvoke(new TestInvocationContext(target, "greet",
+            new Class<?>[]{String.class, int.class}, "world", 3));
+
+        assertThat(log.lastMessage()).isEqualTo("greet world 3");
+    }
+
+    @Test void shouldPutLogContextParameterIntoMdc() throws Exception {
+        interceptor.aroundInvoke(new TestInvocationContext(target, "greetUser",
+            new Class<?>[]{String.class, String.class}, "bob", "world"));
+
+        assertThat(log.lastMessage()).isEqualTo("greet user bob world");
+        assertThat(log.user).isEqualTo("bob");
+        assertThat(MDC.get("user")).isNull();
+    }
+
+    @Test void shouldNotLogDisabledLevel() throws Exception {
+        long count = log.count();
+
+        interceptor.aroundInvoke(new TestInvocationContext(target, "greetFinely",
+            new Class<?>[]{String.class}, "world"));
+
+        assertThat(log.count()).isEqualTo(count);
+    }
+
+    @Test void shouldRenderLikeStandardLogPoint() throws Exception {
+        List<Integer> numbers = List.of(1, 2, 3);
+        TestInvocationContext context = new TestInvocationContext(target, "greetLimited",
+            new Class<?>[]{List.class}, numbers);
+
+        interceptor.aroundInvoke(context);
+        String specialized = log.lastMessage();
+        new LoggingInterceptor(Collections.emptyList(), new Converters(), SPECIALIZED.withSpecialized(false))
+            .aroundInvoke(context);
+
+        assertThat(specialized).isEqualTo("greet [1, 2, 3]").isEqualTo(log.lastMessage());
+    }
+}
@@ -0,0 +1,32 @@
+package com.github.t1.log;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MessageBufferTest {
+    @Test void shouldReuseBuffer() {
+        StringBuilder first = MessageBuffer.acquire(10);
+        first.append("foo");
+        assertThat(MessageBuffer.release(first)).isEqualTo("foo");
+
+        StringBuilder second = MessageBuffer.acquire(10);
+        second.append("bar");
+        assertThat(MessageBuffer.release(second)).isEqualTo("bar");
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test void shouldUseFreshBufferWhenNested() {
+        StringBuilder outer = MessageBuffer.acquire(10);
+        outer.append("outer");
+
+        StringBuilder inner = MessageBuffer.acquire(10);
+        inner.append("inner");
+        assertThat(MessageBuffer.release(inner)).isEqualTo("inner");
+
+        outer.append("-continued");
+        assertThat(MessageBuffer.release(outer)).isEqualTo("outer-continued");
+        assertThat(inner).isNotSameAs(outer);
+    }
+}
@@ -0,0 +1,51 @@
+package com.github.t1.log;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ParameterNamesTest {
+    @SuppressWarnings("unused")
+    public static class Target {
+        public void instance(String first, long second, int[] third, double fourth, Object fifth) {}
+
+        public static void statics(long first, String[][] second, boolean third) {}
+
+        public void noParams() {}
+    }
+
+    @SuppressWarnings("unused")
+    public interface Abstract {
+        void foo(String bar);
+    }
+
+    private static String[] names(Method method) {
+        String[] names = new String[method.getParameterCount()];
+        for (int i = 0; i < names.length; i++)
+            names[i] = ParameterNames.of(method, i);
+        return names;
+    }
+
+    @Test void shouldGetInstanceMethodParameterNames() throws Exception {
+        Method method = Target.class.getMethod("instance", String.class, long.class, int[].class, double.class,
+            Object.class);
+
+        assertThat(names(method)).containsExactly("first", "second", "third", "fourth", "fifth");
+    }
+
+    @Test void shouldGetStaticMethodParameterNames() throws Exception {
+        Method method = Target.class.getMethod("statics", long.class, String[][].class, boolean.class);
+
+        assertThat(names(method)).containsExactly("first", "second", "third");
+    }
+
+    @Test void shouldGetNoParameterNames() throws Exception {
+        assertThat(names(Target.class.getMethod("noParams"))).isEmpty();
+    }
+
+    @Test void shouldNotGetAbstractMethodParameterNames() throws Exception {
+        assertThat(ParameterNames.of(Abstract.class.getMethod("foo", String.class), 0)).isNull();
+    }
+}
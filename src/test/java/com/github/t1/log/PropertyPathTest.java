@@ -0,0 +1,93 @@
+package com.github.t1.log;
+
+import lombok.Value;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PropertyPathTest {
+    @Value
+    public static class Person {
+        String name;
+        Address address;
+        boolean active;
+    }
+
+    public record Address(String zip, String city) {}
+
+    public static class Pojo {
+        public String field = "f";
+        public static String staticField = "s";
+    }
+
+    public static class Failing {
+        public String getValue() {throw new IllegalStateException();}
+    }
+
+    private static final Person JANE = new Person("Jane", new Address("12345", "Berlin"), true);
+
+    private static Object evaluate(String expression, Object object) {
+        return PropertyPath.compile(expression).evaluateOn(object);
+    }
+
+    @Test void shouldReturnObjectWithoutExpression() {
+        assertThat(evaluate(null, JANE)).isSameAs(JANE);
+    }
+
+    @Test void shouldReadGetter() {
+        assertThat(evaluate("name", JANE)).isEqualTo("Jane");
+    }
+
+    @Test void shouldReadIsGetter() {
+        assertThat(evaluate("active", JANE)).isEqualTo(true);
+    }
+
+    @Test void shouldReadRecordComponentPath() {
+        assertThat(evaluate("address.zip", JANE)).isEqualTo("12345");
+    }
+
+    @Test void shouldReadPublicField() {
+        assertThat(evaluate("field", new Pojo())).isEqualTo("f");
+    }
+
+    @Test void shouldNotReadStaticField() {
+        assertThat(evaluate("staticField", new Pojo())).isEqualTo("can't get staticField");
+    }
+
+    @Test void shouldReadMapKey() {
+        assertThat(evaluate("person.address.city", Map.of("person", JANE))).isEqualTo("Berlin");
+    }
+
+    @Test void shouldShortCircuitNull() {
+        Person person = new Person("Joe", null, false);
+
+        assertThat(evaluate("address.zip", person)).isNull();
+        assertThat(evaluate("address.zip", null)).isNull();
+    }
+
+    @Test void shouldFailForUnknownProperty() {
+        assertThat(evaluate("unknown", JANE)).isEqualTo("can't get unknown");
+    }
+
+    @Test void shouldFailForThrowingGetter() {
+        assertThat(evaluate("value", new Failing())).isEqualTo("can't get value");
+    }
+
+    @Test void shouldReadFromManyReceiverClasses() {
+        PropertyPath path = PropertyPath.compile("zip");
+        Object[] receivers = {
+            new Address("1", null), Map.of("zip", "2"), new HashMap<>(Map.of("zip", "3")),
+            new TreeMap<>(Map.of("zip", "4")), new LinkedHashMap<>(Map.of("zip", "5")),
+            new Hashtable<>(Map.of("zip", "6"))};
+
+        for (int run = 0; run < 3; run++)
+            for (int i = 0; i < receivers.length; i++)
+                assertThat(path.evaluateOn(receivers[i])).isEqualTo(Integer.toString(i + 1));
+    }
+}
@@ -0,0 +1,238 @@
+package com.github.t1.log;
+
+import mock.logging.MockMDC;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static mock.logging.MockMDC.mdc;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+class RestorableMdcTest {
+    @BeforeEach
+    @AfterEach
+    void resetMdc() {
+        MockMDC.reset();
+    }
+
+    @Test void shouldRestoreNullValue() {
+        RestorableMdc mdc = RestorableMdc.open(1);
+        mdc.put("foo", "bar");
+        mdc.apply();
+        mdc.restore();
+
+        InOrder inOrder = inOrder(mdc());
+        inOrder.verify(mdc()).put("foo", "bar");
+        inOrder.verify(mdc()).remove("foo");
+    }
+
+    @Test void shouldRestoreOriginalValueWhenPutTwice() {
+        when(mdc().get("foo")).thenReturn("original");
+
+        RestorableMdc mdc = RestorableMdc.open(1);
+        mdc.put("foo", "first");
+        mdc.apply();
+        mdc.put("foo", "second");
+        mdc.apply();
+        mdc.restore();
+
+        InOrder inOrder = inOrder(mdc());
+        inOrder.verify(mdc()).put("foo", "first");
+        inOrder.verify(mdc()).put("foo", "second");
+        inOrder.verify(mdc()).put("foo", "original");
+        verify(mdc(), never()).remove("foo");
+    }
+
+    @Test void shouldRestoreNestedScopesSeparately() {
+        RestorableMdc outer = RestorableMdc.open(1);
+        outer.put("foo", "outer");
+        outer.apply();
+
+        when(mdc().get("foo")).thenReturn("outer");
+        RestorableMdc inner = RestorableMdc.open(1);
+        inner.put("foo", "inner");
+        inner.put("bar", "inner");
+        inner.apply();
+        inner.restore();
+
+        outer.restore();
+
+        InOrder inOrder = inOrder(mdc());
+        inOrder.verify(mdc()).put("foo", "outer");
+        inOrder.verify(mdc()).put("foo", "inner");
+        inOrder.verify(mdc()).put("bar", "inner");
+        inOrder.verify(mdc()).remove("bar");
+        inOrder.verify(mdc()).put("foo", "outer");
+        inOrder.verify(mdc()).remove("foo");
+    }
+
+    @Test void shouldReuseScopeForNextInvocation() {
+        RestorableMdc first = RestorableMdc.open(1);
+        first.restore();
+
+        RestorableMdc second = RestorableMdc.open(3);
+        second.restore();
+
+        assertThat(second).isSameAs(first);
+    }
+
+    @Test void shouldRemoveThreadLocalAfterOutermostScope() {
+        RestorableMdc outer = RestorableMdc.open(1);
+        RestorableMdc inner = RestorableMdc.open(1);
+        inner.restore();
+
+        assertThat(RestorableMdc.isIdle()).isFalse();
+
+        outer.restore();
+
+        assertThat(RestorableMdc.isIdle()).isTrue();
+    }
+
+    @Test void shouldGrowBeyondCapacity() {
+        RestorableMdc mdc = RestorableMdc.open(0);
+        mdc.put("a", "1");
+        mdc.put("b", "2");
+        mdc.put("c", "3");
+        mdc.apply();
+        mdc.restore();
+
+        verify(mdc()).remove("a");
+        verify(mdc()).remove("b");
+        verify(mdc()).remove("c");
+    }
+
+    @Test void shouldSeePendingValue() {
+        RestorableMdc mdc = RestorableMdc.open(1);
+        mdc.put("foo", "bar");
+
+        assertThat(mdc.get("foo")).isEqualTo("bar");
+        verify(mdc(), never()).put(anyString(), anyString());
+        mdc.restore();
+    }
+
+    @Test void shouldNotWriteNorRestoreUnchangedValue() {
+        when(mdc().get("foo")).thenReturn("bar");
+
+        RestorableMdc mdc = RestorableMdc.open(1);
+        mdc.put("foo", "bar");
+        mdc.apply();
+        mdc.restore();
+
+        verify(mdc(), never()).put(anyString(), anyString());
+        verify(mdc(), never()).remove(anyString());
+    }
+
+    @Test void shouldWriteOnlyLastValueOfOneBatch() {
+        RestorableMdc mdc = RestorableMdc.open(1);
+        mdc.put("foo", "first");
+        mdc.put("foo", "second");
+        mdc.apply();
+        mdc.restore();
+
+        verify(mdc(), never()).put("foo", "first");
+        verify(mdc()).put("foo", "second");
+        verify(mdc()).remove("foo");
+    }
+
+    @Test void shouldNotRestoreChangesThatAreNotApplied() {
+        RestorableMdc mdc = RestorableMdc.open(1);
+        mdc.put("foo", "bar");
+        mdc.restore();
+
+        verify(mdc(), never()).put(anyString(), anyString());
+        verify(mdc(), never()).remove(anyString());
+    }
+
+    @Test void shouldApplyAndRestoreBatchAsOneContextMap() {
+        when(mdc().get("foo")).thenReturn("original");
+        when(mdc().getCopyOfContextMap()).thenAnswer(i -> new HashMap<>(Map.of("foo", "original")));
+
+        RestorableMdc mdc = RestorableMdc.open(2, true);
+        mdc.put("foo", "first");
+        mdc.put("bar", "second");
+        mdc.apply();
+        mdc.restore();
+
+        InOrder inOrder = inOrder(mdc());
+        inOrder.verify(mdc()).setContextMap(Map.of("foo", "first", "bar", "second"));
+        inOrder.verify(mdc()).setContextMap(Map.of("foo", "original"));
+        verify(mdc(), never()).put(anyString(), anyString());
+        verify(mdc(), never()).remove(anyString());
+    }
+
+    @Test void shouldNotPutNorRestoreValueUnchangedSinceOuterScope() {
+        RestorableMdc outer = RestorableMdc.open(1);
+        outer.put("foo", "bar");
+        outer.apply();
+
+        when(mdc().get("foo")).thenReturn("bar");
+        RestorableMdc inner = RestorableMdc.open(1);
+        inner.put("foo", "bar");
+        inner.apply();
+        inner.restore();
+
+        outer.restore();
+
+        verify(mdc(), times(1)).put("foo", "bar");
+        verify(mdc(), times(1)).remove("foo");
+    }
+
+    @Test void shouldPutAndRestoreValueChangedSinceOuterScope() {
+        RestorableMdc outer = RestorableMdc.open(1);
+        outer.put("foo", "bar");
+        outer.apply();
+
+        when(mdc().get("foo")).thenReturn("changed");
+        RestorableMdc inner = RestorableMdc.open(1);
+        inner.put("foo", "bar");
+        inner.apply();
+        inner.restore();
+
+        outer.restore();
+
+        InOrder inOrder = inOrder(mdc());
+        inOrder.verify(mdc()).put("foo", "bar");
+        inOrder.verify(mdc()).put("foo", "bar");
+        inOrder.verify(mdc()).put("foo", "changed");
+        inOrder.verify(mdc()).remove("foo");
+    }
+
+    @Test void shouldOnlyNeedBindingWhenChanged() {
+        RestorableMdc unchanged = RestorableMdc.open(1);
+        assertThat(unchanged.needsBinding()).isFalse();
+        unchanged.restore();
+
+        RestorableMdc written = RestorableMdc.open(1);
+        written.put("foo", "bar");
+        written.apply();
+        assertThat(written.needsBinding()).isTrue();
+        written.restore();
+
+        RestorableMdc nested = RestorableMdc.open(1);
+        nested.incrementDepth();
+        assertThat(nested.needsBinding()).isTrue();
+        nested.restore();
+    }
+
+    @Test void shouldOnlyNeedBindingInNestedScopeWhenOuterIsNotBound() {
+        RestorableMdc outer = RestorableMdc.open(1);
+        outer.put("foo", "bar");
+        outer.apply();
+
+        RestorableMdc unbound = RestorableMdc.open(1);
+        assertThat(unbound.needsBinding()).isTrue();
+        unbound.restore();
+
+        outer.markBound();
+        RestorableMdc bound = RestorableMdc.open(1);
+        assertThat(bound.needsBinding()).isFalse();
+        bound.restore();
+
+        outer.restore();
+    }
+}
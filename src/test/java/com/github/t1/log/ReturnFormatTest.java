@@ -0,0 +1,76 @@
+package com.github.t1.log;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.concurrent.TimeUnit.*;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReturnFormatTest {
+    /**
+     * Not a mock: the inline mock maker would instrument the {@link Converters} class itself, and that would
+     * allocate in the {@link AllocationBudgetTest}, if it runs later in the same JVM.
+     */
+    private static class StubConverters extends Converters {
+        private final Map<Object, Object> conversions = new HashMap<>();
+        private int calls;
+
+        @Override public Object convert(Object value) {
+            calls++;
+            return conversions.getOrDefault(value, value);
+        }
+    }
+
+    private final StubConverters converters = new StubConverters();
+
+    private String render(String format, Object returnValue, long time) {
+        return ReturnFormat.parse(format, MILLISECONDS, RenderLimits.DEFAULTS)
+            .render(returnValue, MILLISECONDS.toNanos(time), converters);
+    }
+
+    @Test void shouldRenderDefaultFormat() {
+        assertThat(render("return {returnValue} [time:{time}]", "foo", 12)).isEqualTo("return foo [time:12]");
+    }
+
+    @Test void shouldRenderConvertedReturnValue() {
+        converters.conversions.put("foo", "converted");
+
+        assertThat(render("{returnValue}", "foo", 12)).isEqualTo("converted");
+    }
+
+    @Test void shouldRenderNullReturnValue() {
+        assertThat(render("-{returnValue}-", null, 12)).isEqualTo("-null-");
+    }
+
+    @Test void shouldRenderRepeatedPlaceholders() {
+        assertThat(render("{time}{returnValue}{time}{returnValue}", "foo", 3)).isEqualTo("3foo3foo");
+        assertThat(converters.calls).isEqualTo(1);
+    }
+
+    @Test void shouldNotConvertReturnValueWithoutPlaceholder() {
+        assertThat(render("took {time}", "foo", 12)).isEqualTo("took 12");
+
+        assertThat(converters.calls).isZero();
+    }
+
+    @Test void shouldKeepUnknownPlaceholders() {
+        assertThat(render("{unknown} {time", "foo", 12)).isEqualTo("{unknown} {time");
+    }
+
+    @Test void shouldNotReplacePlaceholdersInReturnValue() {
+        assertThat(render("{returnValue}", "{time}", 12)).isEqualTo("{time}");
+    }
+
+    @Test void shouldBeEmpty() {
+        assertThat(ReturnFormat.parse("", MILLISECONDS, RenderLimits.DEFAULTS).isEmpty()).isTrue();
+    }
+
+    @Test void shouldRenderTimeInUnits() {
+        ReturnFormat format = ReturnFormat.parse("{time} {timeMicros} {timeNanos}", MICROSECONDS,
+            RenderLimits.DEFAULTS);
+
+        assertThat(format.render(null, 1_234_567, converters)).isEqualTo("1234 1234 1234567");
+    }
+}
@@ -0,0 +1,101 @@
+package com.github.t1.log;
+
+import mock.logging.MockLoggerProvider;
+import mock.logging.MockMDC;
+import mock.logging.NoOpLogger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.event.Level;
+import org.slf4j.helpers.BasicMDCAdapter;
+
+import java.util.Collections;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeFalse;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ScopedLogContextTest {
+    private static final NoOpLogger LOG = new NoOpLogger(ScopedLogContextTest.class.getName(), Level.DEBUG);
+
+    @SuppressWarnings("unused")
+    public static class Target {
+        @Logged
+        public String scopedUser(@LogContext("user") String user) {
+            LogContextSnapshot current = ScopedLogContext.current();
+            return (current == null) ? null : current.get("user");
+        }
+
+        /** An MDC that doesn't contain the user, like the one of a subtask */
+        @Logged
+        public String bridgedUser(@LogContext("user") String user) {
+            return new ScopedMdcAdapter(new BasicMDCAdapter()).get("user");
+        }
+    }
+
+    private final Target target = new Target();
+    private LoggingInterceptor interceptor = new LoggingInterceptor(Collections.emptyList(), new Converters());
+
+    @BeforeEach void setUp() {
+        MockLoggerProvider.givenLogger(LOG);
+        MockMDC.use(new BasicMDCAdapter());
+    }
+
+    @AfterEach void tearDown() {
+        MockMDC.useMock();
+    }
+
+    private String call(String methodName) throws Exception {
+        return (String) interceptor.aroundInvoke(new TestInvocationContext(target, methodName,
+            new Class<?>[]{String.class}, "bob"));
+    }
+
+    @Test void shouldNotBeAvailableBeforeJdk21() {
+        assumeTrue(Runtime.version().feature() < 21);
+
+        assertThat(ScopedLogContext.isAvailable()).isFalse();
+    }
+
+    @Test void shouldNotBindWhenDisabled() throws Exception {
+        assertThat(call("scopedUser")).isNull();
+        assertThat(call("bridgedUser")).isNull();
+    }
+
+    @Test void shouldIgnoreScopedOptionWhenNotAvailable() throws Exception {
+        assumeFalse(ScopedLogContext.isAvailable());
+        interceptor = new LoggingInterceptor(Collections.emptyList(), new Converters(),
+            LogOptions.global().withScoped(true));
+
+        assertThat(call("scopedUser")).isNull();
+        assertThat(call("bridgedUser")).isNull();
+    }
+
+    private void givenScoped() {
+        assumeTrue(ScopedLogContext.isAvailable());
+        interceptor = new LoggingInterceptor(Collections.emptyList(), new Converters(),
+            LogOptions.global().withScoped(true));
+    }
+
+    @Test void shouldBindLogContextForProceed() throws Exception {
+        givenScoped();
+
+        assertThat(call("scopedUser")).isEqualTo("bob");
+        assertThat(ScopedLogContext.current()).isNull();
+    }
+
+    @Test void shouldBridgeToMdcAdapter() throws Exception {
+        givenScoped();
+
+        assertThat(call("bridgedUser")).isEqualTo("bob");
+    }
+
+    @Test void shouldDelegateWhenNothingIsBound() {
+        BasicMDCAdapter delegate = new BasicMDCAdapter();
+        delegate.put("user", "alice");
+        ScopedMdcAdapter adapter = new ScopedMdcAdapter(delegate);
+
+        assertThat(adapter.get("user")).isEqualTo("alice");
+        assertThat(adapter.getCopyOfContextMap()).isEqualTo(Map.of("user", "alice"));
+    }
+}
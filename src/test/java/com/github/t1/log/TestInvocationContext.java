@@ -0,0 +1,42 @@
+package com.github.t1.log;
+
+import jakarta.interceptor.InvocationContext;
+import lombok.SneakyThrows;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+
+/** Invokes the target method directly, so we can call the {@link LoggingInterceptor} without a container */
+class TestInvocationContext implements InvocationContext {
+    private final Object target;
+    private final Method method;
+    private Object[] parameters;
+    private final Map<String, Object> contextData = new HashMap<>();
+
+    @SneakyThrows(NoSuchMethodException.class)
+    TestInvocationContext(Object target, String methodName, Class<?>[] parameterTypes, Object... parameters) {
+        this.target = target;
+        this.method = target.getClass().getMethod(methodName, parameterTypes);
+        this.parameters = parameters;
+    }
+
+    @Override public Object getTarget() {return target;}
+
+    @Override public Object getTimer() {return null;}
+
+    @Override public Method getMethod() {return method;}
+
+    @Override public Constructor<?> getConstructor() {return null;}
+
+    @Override public Object[] getParameters() {return parameters;}
+
+    @Override public void setParameters(Object[] parameters) {this.parameters = parameters;}
+
+    @Override public Map<String, Object> getContextData() {return contextData;}
+
+    @Override public Object proceed() throws Exception {
+        return method.invoke(target, parameters);
+    }
+}
@@ -0,0 +1,180 @@
+package com.github.t1.log;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+import static java.util.stream.Collectors.toList;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+class ValueRendererTest {
+    private static final RenderLimits LIMITS = new RenderLimits(20, 3, 2, 2);
+
+    private static String render(Object value) {
+        StringBuilder out = new StringBuilder();
+        ValueRenderer.append(out, value);
+        return out.toString();
+    }
+
+    private static String renderLimited(Object value) {
+        StringBuilder out = new StringBuilder("x:");
+        ValueRenderer.append(out, value, LIMITS);
+        return out.toString();
+    }
+
+    @Test void shouldRenderNull() {
+        assertThat(render(null)).isEqualTo("null");
+    }
+
+    @Test void shouldRenderBoxedPrimitives() {
+        assertThat(render(3)).isEqualTo("3");
+        assertThat(render(3L)).isEqualTo("3");
+        assertThat(render(true)).isEqualTo("true");
+        assertThat(render('c')).isEqualTo("c");
+        assertThat(render(1.5)).isEqualTo("1.5");
+    }
+
+    @Test void shouldRenderPrimitiveArray() {
+        assertThat(render(new int[]{1, 2, 3})).isEqualTo("[1, 2, 3]");
+    }
+
+    @Test void shouldRenderNestedObjectArray() {
+        assertThat(render(new Object[]{"a", new int[]{1}, null})).isEqualTo("[a, [1], null]");
+    }
+
+    @Test void shouldRenderRecursiveObjectArray() {
+        Object[] array = new Object[2];
+        array[0] = "a";
+        array[1] = array;
+
+        assertThat(render(array)).isEqualTo("[a, [...]]");
+    }
+
+    @Test void shouldRenderFailingToString() {
+        Object failing = new Object() {
+            @Override public String toString() {
+                throw new IllegalStateException();
+            }
+        };
+
+        assertThat(render(failing)).isEqualTo("[FAILED toString()]");
+    }
+
+    @Test void shouldRenderCollectionsAndMapsLikeToString() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("a", List.of(1, 2));
+        map.put("b", null);
+
+        assertThat(render(map)).isEqualTo(map.toString());
+    }
+
+    @Test void shouldRenderCustomCollectionToString() {
+        List<String> list = new ArrayList<>(List.of("a")) {
+            @Override public String toString() {
+                return "custom";
+            }
+        };
+
+        assertThat(render(list)).isEqualTo("custom");
+    }
+
+    @Test void shouldCutOffLongString() {
+        assertThat(renderLimited("a".repeat(100))).isEqualTo("x:" + "a".repeat(20) + "...");
+    }
+
+    @Test void shouldNotCutOffStringOfMaxLength() {
+        assertThat(renderLimited("a".repeat(20))).isEqualTo("x:" + "a".repeat(20));
+    }
+
+    @Test void shouldCutOffLongToString() {
+        Object value = new Object() {
+            @Override public String toString() {
+                return "b".repeat(30);
+            }
+        };
+
+        assertThat(renderLimited(value)).isEqualTo("x:" + "b".repeat(20) + "...");
+    }
+
+    @Test void shouldLimitCollectionElements() {
+        List<Integer> list = IntStream.range(0, 50_000).boxed().collect(toList());
+
+        assertThat(renderLimited(list)).isEqualTo("x:[0, 1, 2, ...]");
+    }
+
+    @Test void shouldLimitArrayElements() {
+        assertThat(renderLimited(new long[]{1, 2, 3, 4})).isEqualTo("x:[1, 2, 3, ...]");
+        assertThat(renderLimited(new String[]{"a", "b", "c", "d"})).isEqualTo("x:[a, b, c, ...]");
+    }
+
+    @Test void shouldLimitMapEntries() {
+        Map<String, Integer> map = new TreeMap<>(Map.of("a", 1, "b", 2, "c", 3));
+
+        assertThat(renderLimited(map)).isEqualTo("x:{a=1, b=2, ...}");
+    }
+
+    @Test void shouldLimitNestingDepth() {
+        List<Object> list = List.of(List.of(List.of("deep")), new Object[]{new int[]{1}});
+
+        assertThat(renderLimited(list)).isEqualTo("x:[[[...]], [[...]]]");
+    }
+
+    @Test void shouldCutOffManyLongElements() {
+        List<String> list = List.of("a".repeat(15), "b".repeat(15));
+
+        assertThat(renderLimited(list)).isEqualTo("x:[" + "a".repeat(15) + ", bb...");
+    }
+
+    @Test void shouldRenderRecursiveCollection() {
+        List<Object> list = new ArrayList<>();
+        list.add(list);
+
+        assertThat(renderLimited(list)).isEqualTo("x:[[[...]]]");
+    }
+
+    @Test void shouldRenderByteArrayAsHex() {
+        assertThat(render(new byte[]{0, 10, (byte) 0xff})).isEqualTo("byte[3]:000aff");
+    }
+
+    @Test void shouldLimitBytes() {
+        assertThat(renderLimited(new byte[1_000_000])).isEqualTo("x:byte[1000000]:000000...");
+    }
+
+    @Test void shouldRenderByteBufferWithoutMovingThePosition() {
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[]{1, 2, 3, 4, 5, 6});
+        buffer.position(1);
+
+        assertThat(renderLimited(buffer)).isEqualTo("x:ByteBuffer[5]:020304...");
+        assertThat(buffer.position()).isEqualTo(1);
+    }
+
+    @Test void shouldTakeLimitsFromProperties() {
+        Properties properties = new Properties();
+        properties.setProperty("com.github.t1.log.maxLength", " 50 ");
+        properties.setProperty("com.github.t1.log.maxDepth", "-1");
+        properties.setProperty("com.github.t1.log.maxEntries", "many");
+
+        RenderLimits limits = RenderLimits.DEFAULTS.with(properties);
+
+        assertThat(limits).isEqualTo(new RenderLimits(50, 100, 100, 5));
+    }
+
+    @Test void shouldRejectNegativeLimitProperty() {
+        Properties properties = new Properties();
+        properties.setProperty("com.github.t1.log.maxLength", "-10");
+
+        Throwable thrown = catchThrowable(() -> RenderLimits.DEFAULTS.with(properties));
+
+        assertThat(thrown).isInstanceOf(IllegalArgumentException.class)
+            .hasMessage("invalid system property com.github.t1.log.maxLength: -10; "
+                + "must not be negative, or -1 for the global limit");
+    }
+}
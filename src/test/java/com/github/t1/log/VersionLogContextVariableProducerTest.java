@@ -79,7 +79,7 @@ class VersionLogContextVariableProducerTest {
         producer.scan();
 
         assertEquals("exist", producer.app().value());
-        assertNull(producer.version());
+        assertNull(producer.version().value());
     }
 
     @Test void shouldIgnoreNonMatchingManifest() throws IOException {
@@ -87,8 +87,8 @@ class VersionLogContextVariableProducerTest {
 
         producer.scan();
 
-        assertNull(producer.app());
-        assertNull(producer.version());
+        assertNull(producer.app().value());
+        assertNull(producer.version().value());
     }
 
     @Test void shouldIgnoreEmptyManifest() throws IOException {
@@ -97,7 +97,7 @@ class VersionLogContextVariableProducerTest {
         producer.scan();
 
         assertEquals("empty-manifest", producer.app().value());
-        assertNull(producer.version());
+        assertNull(producer.version().value());
     }
 
     @Test void shouldFindSpecVersionManifest() throws IOException {
@@ -107,4 +107,15 @@ class VersionLogContextVariableProducerTest {
 
         assertEquals("1.2.4", producer.version().value());
     }
+
+    @Test void shouldProduceVariablesWithoutValueWithoutManifest() throws IOException {
+        when(finder.manifests()).thenReturn(asList());
+
+        producer.scan();
+
+        assertEquals("app", producer.app().key());
+        assertNull(producer.app().value());
+        assertEquals("version", producer.version().key());
+        assertNull(producer.version().value());
+    }
 }
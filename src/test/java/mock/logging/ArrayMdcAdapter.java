@@ -0,0 +1,76 @@
+package mock.logging;
+
+import org.slf4j.spi.MDCAdapter;
+
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Map;
+
+/** A single-threaded MDC adapter that doesn't allocate when putting and removing a few keys */
+public class ArrayMdcAdapter implements MDCAdapter {
+    private final String[] keys = new String[32];
+    private final String[] values = new String[32];
+
+    private int indexOf(String key) {
+        for (int i = 0; i < keys.length; i++)
+            if (key.equals(keys[i]))
+                return i;
+        return -1;
+    }
+
+    @Override public void put(String key, String val) {
+        int index = indexOf(key);
+        if (index < 0)
+            index = indexOfFree();
+        keys[index] = key;
+        values[index] = val;
+    }
+
+    private int indexOfFree() {
+        for (int i = 0; i < keys.length; i++)
+            if (keys[i] == null)
+                return i;
+        throw new IllegalStateException("too many mdc keys");
+    }
+
+    @Override public String get(String key) {
+        int index = indexOf(key);
+        return (index < 0) ? null : values[index];
+    }
+
+    @Override public void remove(String key) {
+        int index = indexOf(key);
+        if (index >= 0) {
+            keys[index] = null;
+            values[index] = null;
+        }
+    }
+
+    @Override public void clear() {
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = null;
+            values[i] = null;
+        }
+    }
+
+    @Override public Map<String, String> getCopyOfContextMap() {
+        Map<String, String> map = new HashMap<>();
+        for (int i = 0; i < keys.length; i++)
+            if (keys[i] != null)
+                map.put(keys[i], values[i]);
+        return map;
+    }
+
+    @Override public void setContextMap(Map<String, String> contextMap) {
+        clear();
+        contextMap.forEach(this::put);
+    }
+
+    @Override public void pushByKey(String key, String value) {throw new UnsupportedOperationException();}
+
+    @Override public String popByKey(String key) {throw new UnsupportedOperationException();}
+
+    @Override public Deque<String> getCopyOfDequeByKey(String key) {throw new UnsupportedOperationException();}
+
+    @Override public void clearDequeByKey(String key) {throw new UnsupportedOperationException();}
+}
@@ -0,0 +1,32 @@
+package mock.logging;
+
+import org.slf4j.spi.MDCAdapter;
+
+import java.util.Deque;
+import java.util.Map;
+
+class DelegatingMdcAdapter implements MDCAdapter {
+    volatile MDCAdapter target;
+
+    DelegatingMdcAdapter(MDCAdapter target) {this.target = target;}
+
+    @Override public void put(String key, String val) {target.put(key, val);}
+
+    @Override public String get(String key) {return target.get(key);}
+
+    @Override public void remove(String key) {target.remove(key);}
+
+    @Override public void clear() {target.clear();}
+
+    @Override public Map<String, String> getCopyOfContextMap() {return target.getCopyOfContextMap();}
+
+    @Override public void setContextMap(Map<String, String> contextMap) {target.setContextMap(contextMap);}
+
+    @Override public void pushByKey(String key, String value) {target.pushByKey(key, value);}
+
+    @Override public String popByKey(String key) {return target.popByKey(key);}
+
+    @Override public Deque<String> getCopyOfDequeByKey(String key) {return target.getCopyOfDequeByKey(key);}
+
+    @Override public void clearDequeByKey(String key) {target.clearDequeByKey(key);}
+}
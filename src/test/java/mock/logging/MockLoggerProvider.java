@@ -13,19 +13,20 @@ import java.util.concurrent.ConcurrentHashMap;
 import static org.mockito.Mockito.mock;
 
 public class MockLoggerProvider implements SLF4JServiceProvider {
-    /** we need to verify the Object[]-log method, not the one-arg method. */
-    public static Object[] array(Object... args) {return args;}
+    private static final Map<String, Logger> MAP = new ConcurrentHashMap<>();
+
+    /** Use a real logger instead of a mock, e.g. one that doesn't record every invocation */
+    public static void givenLogger(Logger logger) {MAP.put(logger.getName(), logger);}
 
-    private final Map<String, Logger> map = new ConcurrentHashMap<>();
     private final IMarkerFactory markerFactory = new BasicMarkerFactory();
-    private final MDCAdapter mdcAdapter = MockMDC.SINGLETON.adapter;
+    private final MDCAdapter mdcAdapter = MockMDC.SINGLETON.delegate;
 
     @Override public String getRequestedApiVersion() {return "2.0.99";}
 
     @Override public void initialize() {}
 
     @Override public ILoggerFactory getLoggerFactory() {
-        return name -> map.computeIfAbsent(name, n -> mock(Logger.class));
+        return name -> MAP.computeIfAbsent(name, n -> mock(Logger.class));
     }
 
     @Override public IMarkerFactory getMarkerFactory() {return markerFactory;}
@@ -1,6 +1,7 @@
 package mock.logging;
 
 import org.mockito.Mockito;
+import org.mockito.quality.Strictness;
 import org.slf4j.spi.MDCAdapter;
 
 import java.util.HashMap;
@@ -26,10 +27,19 @@ public class MockMDC {
 
     public static void reset() {
         Mockito.reset(SINGLETON.adapter);
+        useMock();
         mdc.clear();
     }
 
     public static MDCAdapter mdc() {return SINGLETON.adapter;}
 
-    final MDCAdapter adapter = mock(MDCAdapter.class);
+    /** Use a real MDC adapter instead of the mock, until {@link #useMock()} */
+    public static void use(MDCAdapter adapter) {SINGLETON.delegate.target = adapter;}
+
+    public static void useMock() {use(SINGLETON.adapter);}
+
+    /** lenient, as the singleton may be created within the strict session of a MockitoExtension test */
+    final MDCAdapter adapter = mock(MDCAdapter.class, withSettings().strictness(Strictness.LENIENT));
+    /** the adapter registered in slf4j, which can't be replaced */
+    final DelegatingMdcAdapter delegate = new DelegatingMdcAdapter(adapter);
 }
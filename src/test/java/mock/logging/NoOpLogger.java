@@ -0,0 +1,43 @@
+package mock.logging;
+
+import org.slf4j.Marker;
+import org.slf4j.event.Level;
+import org.slf4j.helpers.LegacyAbstractLogger;
+
+/** A logger that only counts the messages it gets, without allocating anything, unlike a mock */
+public class NoOpLogger extends LegacyAbstractLogger {
+    private final Level level;
+    private long count;
+    private String lastMessage;
+
+    /** @param level the finest level that is enabled */
+    public NoOpLogger(String name, Level level) {
+        this.name = name;
+        this.level = level;
+    }
+
+    public long count() {return count;}
+
+    public String lastMessage() {return lastMessage;}
+
+    private boolean isEnabled(Level level) {return level.toInt() >= this.level.toInt();}
+
+    @Override public boolean isTraceEnabled() {return isEnabled(Level.TRACE);}
+
+    @Override public boolean isDebugEnabled() {return isEnabled(Level.DEBUG);}
+
+    @Override public boolean isInfoEnabled() {return isEnabled(Level.INFO);}
+
+    @Override public boolean isWarnEnabled() {return isEnabled(Level.WARN);}
+
+    @Override public boolean isErrorEnabled() {return isEnabled(Level.ERROR);}
+
+    @Override protected String getFullyQualifiedCallerName() {return null;}
+
+    @Override
+    protected void handleNormalizedLoggingCall(Level level, Marker marker, String messagePattern, Object[] arguments,
+        Throwable throwable) {
+        count++;
+        lastMessage = messagePattern;
+    }
+}